@@ -7,13 +7,12 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 
+import ar.edu.um.events_backend.config.UpstreamHttpClients;
+
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.TimeUnit;
 
 @Service
 public class ExternalAuthService {
@@ -31,19 +30,18 @@ public class ExternalAuthService {
     @Value("${externalAuth.password}")
     private String password;
 
-    @Value("${externalAuth.buffer-seconds:30}")
-    private int bufferSeconds;
-
     private final WebClient webClient;
-    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
-    private final Object lock = new Object();
-
-    private String token;
-    private long expiryMillis = 0;
-    private ScheduledFuture<?> scheduledRefresh;
-
-    public ExternalAuthService(WebClient.Builder webClientBuilder) {
-        this.webClient = webClientBuilder.build();
+    private final TokenHolder tokenHolder;
+
+    public ExternalAuthService(WebClient.Builder webClientBuilder,
+                               UpstreamHttpClients upstreamHttpClients,
+                               @Value("${externalAuth.buffer-seconds:30}") int bufferSeconds,
+                               @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        // El login va al mismo servicio externo: comparte su pool de conexiones
+        this.webClient = upstreamHttpClients.configure(webClientBuilder, "external-api").build();
+        // Se renueva bufferSeconds antes del vencimiento; un login fallido se reintenta al minuto
+        this.tokenHolder = new TokenHolder("external-auth", this::fetchToken,
+                bufferSeconds * 1000L, 60000L, virtualThreads);
     }
 
     @PostConstruct
@@ -51,70 +49,62 @@ public class ExternalAuthService {
         logger.info("Inicializando ExternalAuthService");
     }
 
-    private void fetchAndSchedule() {
-        try {
-            Map<String, String> credentials = new HashMap<>();
-            credentials.put("username", username);
-            credentials.put("password", password);
-
-            JsonNode response = webClient.post()
-                    .uri(baseUrl + loginPath)
-                    .bodyValue(credentials)
-                    .retrieve()
-                    .bodyToMono(JsonNode.class)
-                    .block();
-
-            if (response != null && response.has("id_token")) {
-                token = response.get("id_token").asText();
-                
-                long expSeconds = JwtUtils.getExpSeconds(token);
-                long iatSeconds = JwtUtils.getIatSeconds(token);
-                long ttlSeconds = expSeconds - iatSeconds;
-                long refreshInSeconds = Math.max(ttlSeconds - bufferSeconds, 10);
-
-                expiryMillis = System.currentTimeMillis() + (ttlSeconds * 1000);
-
-                if (scheduledRefresh != null) {
-                    scheduledRefresh.cancel(false);
-                }
-                scheduledRefresh = scheduler.schedule(this::fetchAndSchedule, refreshInSeconds, TimeUnit.SECONDS);
-
-                logger.info("Token obtenido exitosamente. Expira en {} segundos. Próxima renovación en {} segundos",
-                        ttlSeconds, refreshInSeconds);
-            } else {
-                logger.error("Respuesta de autenticación no contiene id_token");
-            }
-        } catch (Exception e) {
-            logger.error("Error al obtener token de autenticación: {}", e.getMessage(), e);
-            scheduledRefresh = scheduler.schedule(this::fetchAndSchedule, 60, TimeUnit.SECONDS);
-        }
+    @PreDestroy
+    public void shutdown() {
+        tokenHolder.shutdown();
     }
 
-    private boolean isExpiringSoon() {
-        long now = System.currentTimeMillis();
-        long bufferMillis = bufferSeconds * 1000L;
-        return (expiryMillis - now) < bufferMillis;
+    /**
+     * Login contra el servicio externo (bloqueante, corre en el hilo de renovación)
+     */
+    private TokenHolder.Token fetchToken() {
+        Map<String, String> credentials = new HashMap<>();
+        credentials.put("username", username);
+        credentials.put("password", password);
+
+        JsonNode response = webClient.post()
+                .uri(baseUrl + loginPath)
+                .bodyValue(credentials)
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .block();
+
+        if (response == null || !response.has("id_token")) {
+            throw new IllegalStateException("Respuesta de autenticación no contiene id_token");
+        }
+        String token = response.get("id_token").asText();
+
+        Long expSeconds = JwtUtils.getExpSeconds(token);
+        Long iatSeconds = JwtUtils.getIatSeconds(token);
+        if (expSeconds == null) {
+            throw new IllegalStateException("El token del servicio externo no contiene exp");
+        }
+        // Vencimiento relativo al reloj local (iat/exp) para no depender de la hora del servidor externo
+        long ttlSeconds = iatSeconds != null ? expSeconds - iatSeconds
+                : expSeconds - System.currentTimeMillis() / 1000;
+        return new TokenHolder.Token(token, System.currentTimeMillis() + ttlSeconds * 1000);
     }
 
+    /**
+     * Devuelve el token vigente; solo bloquea si todavía no hay ninguno válido
+     */
     public String getToken() {
-        if (token == null || isExpiringSoon()) {
-            synchronized (lock) {
-                if (token == null || isExpiringSoon()) {
-                    fetchAndSchedule();
-                }
-            }
-        }
-        return token;
+        return tokenHolder.getToken();
     }
 
+    /**
+     * Descarta el token actual (se renueva en segundo plano)
+     */
     public void invalidateToken() {
-        synchronized (lock) {
-            token = null;
-            expiryMillis = 0;
-            if (scheduledRefresh != null) {
-                scheduledRefresh.cancel(false);
-                scheduledRefresh = null;
-            }
-        }
+        tokenHolder.invalidate(null);
+    }
+
+    /**
+     * Descarta el token solo si es el que recibió el 401
+     *
+     * @param rejectedToken Token enviado en la petición rechazada
+     */
+    public void invalidateToken(String rejectedToken) {
+        tokenHolder.invalidate(rejectedToken);
     }
 }
@@ -1,5 +1,6 @@
 package ar.edu.um.events_backend.auth;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -14,12 +15,15 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Date;
+import java.util.Optional;
 
 @Component
 @RequiredArgsConstructor
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
+    private final VerifiedTokenCache verifiedTokenCache;
 
     @Override
     protected void doFilterInternal(
@@ -43,8 +47,8 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         // Ejemplo: "Bearer abc123" -> "abc123"
         jwt = authHeader.substring(7);
 
-        // 4. Validar el token y verificar que no esté ya autenticado en esta petición
-        if (jwtService.isTokenValid(jwt) && SecurityContextHolder.getContext().getAuthentication() == null) {
+        // 4. Verificar que no esté ya autenticado en esta petición y validar el token
+        if (SecurityContextHolder.getContext().getAuthentication() == null && isTokenValid(jwt)) {
             
             // 5. Crear un objeto de autenticación con:
             //    - Principal: "api-access" (identificador genérico)
@@ -69,4 +73,24 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         // Si no está autenticado, Spring Security lo bloqueará después
         filterChain.doFilter(request, response);
     }
+
+    /**
+     * Valida el token, salteando la verificación de firma si ya se verificó antes
+     * y todavía no venció (ver {@link VerifiedTokenCache})
+     */
+    private boolean isTokenValid(String jwt) {
+        long now = System.currentTimeMillis();
+        if (verifiedTokenCache.isVerified(jwt, now)) {
+            return true;
+        }
+        Optional<Claims> claims = jwtService.validateToken(jwt);
+        if (claims.isEmpty()) {
+            return false;
+        }
+        Date expiration = claims.get().getExpiration();
+        if (expiration != null) {
+            verifiedTokenCache.put(jwt, expiration.getTime(), now);
+        }
+        return true;
+    }
 }
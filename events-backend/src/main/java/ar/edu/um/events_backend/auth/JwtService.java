@@ -1,6 +1,7 @@
 package ar.edu.um.events_backend.auth;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -12,15 +13,26 @@ import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 
 @Service
 public class JwtService {
 
-    @Value("${application.security.jwt.secret-key}")
-    private String secretKey;
+    private final long jwtExpiration;
+    
+    // La clave y el parser se construyen una sola vez (ambos son inmutables y thread-safe)
+    private final Key signInKey;
+    private final JwtParser jwtParser;
 
-    @Value("${application.security.jwt.expiration}")
-    private long jwtExpiration;
+    public JwtService(@Value("${application.security.jwt.secret-key}") String secretKey,
+                      @Value("${application.security.jwt.expiration}") long jwtExpiration) {
+        this.jwtExpiration = jwtExpiration;
+        this.signInKey = buildSignInKey(secretKey);
+        this.jwtParser = Jwts
+                .parserBuilder()
+                .setSigningKey(signInKey)       // Usa el secret-key para validar la firma
+                .build();
+    }
 
     // Genera un token JWT sin claims adicionales
     public String generateToken() {
@@ -40,43 +52,40 @@ public class JwtService {
                 .setSubject("api-access")                                         // Sujeto del token (identificador)
                 .setIssuedAt(new Date(System.currentTimeMillis()))               // Fecha de creación del token
                 .setExpiration(new Date(System.currentTimeMillis() + expiration)) // Fecha de expiración (24 horas)
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)              // Firma con secret-key usando HMAC-SHA256
+                .signWith(signInKey, SignatureAlgorithm.HS256)                   // Firma con secret-key usando HMAC-SHA256
                 .compact();                                                       // Genera el string final del token
     }
 
     // Valida si un token es válido (firma correcta y no expirado)
     public boolean isTokenValid(String token) {
+        return validateToken(token).isPresent();
+    }
+
+    // Valida el token parseándolo una sola vez y devuelve sus claims
+    // Vacío si la firma es incorrecta, el token está mal formado o expiró
+    public Optional<Claims> validateToken(String token) {
         try {
-            extractAllClaims(token);           // Intenta parsear el token (valida la firma)
-            return !isTokenExpired(token);     // Verifica que no esté expirado
+            Claims claims = extractAllClaims(token);   // Parsea y valida la firma (y exp)
+            Date expiration = claims.getExpiration();
+            if (expiration != null && expiration.before(new Date())) {
+                return Optional.empty();
+            }
+            return Optional.of(claims);
         } catch (Exception e) {
-            return false;                      // Si falla el parseo = token inválido o firma incorrecta
+            return Optional.empty();                   // Si falla el parseo = token inválido o firma incorrecta
         }
     }
 
-    // Verifica si el token está expirado comparando con la fecha actual
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
-    // Extrae la fecha de expiración del token
-    private Date extractExpiration(String token) {
-        return extractAllClaims(token).getExpiration();
-    }
-
     // Extrae todos los claims (datos) del token
     // Aquí es donde se valida la firma usando el secret-key
     private Claims extractAllClaims(String token) {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getSignInKey())  // Usa el secret-key para validar la firma
-                .build()
+        return jwtParser
                 .parseClaimsJws(token)          // Parsea y valida el token (lanza excepción si es inválido)
                 .getBody();                     // Retorna los claims (datos) del token
     }
 
     // Convierte el secret-key de Base64 a una clave HMAC para firmar/validar
-    private Key getSignInKey() {
+    private static Key buildSignInKey(String secretKey) {
         byte[] keyBytes = Base64.getDecoder().decode(secretKey);  // Decodifica de Base64
         return Keys.hmacShaKeyFor(keyBytes);                      // Crea la clave HMAC-SHA256
     }
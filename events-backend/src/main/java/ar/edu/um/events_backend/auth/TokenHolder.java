@@ -0,0 +1,165 @@
+package ar.edu.um.events_backend.auth;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Token vigente y su renovación, sin locks en el camino de lectura
+ *
+ * - El token y su vencimiento forman una instantánea inmutable ({@link Token})
+ *   publicada en un {@link AtomicReference}: nunca se lee un par inconsistente
+ * - Mientras el token siga vigente {@link #getToken()} lo devuelve sin bloquear;
+ *   si está dentro del margen de renovación dispara la renovación en segundo plano
+ * - Hay como máximo una renovación en curso ({@link CompletableFuture} compartido):
+ *   solo espera quien no tiene un token vigente, y todos esperan el mismo login
+ * - Tras cada login se programa la siguiente renovación antes del vencimiento;
+ *   si el login falla se reintenta más tarde
+ */
+class TokenHolder {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenHolder.class);
+
+    /**
+     * Instantánea inmutable de un token
+     *
+     * @param value Token
+     * @param expiresAtMillis Vencimiento (epoch millis)
+     */
+    record Token(String value, long expiresAtMillis) {
+    }
+
+    /**
+     * Login contra el servicio que emite el token (bloqueante)
+     */
+    @FunctionalInterface
+    interface Fetcher {
+        Token fetch() throws Exception;
+    }
+
+    private final String name;
+    private final Fetcher fetcher;
+    private final long refreshAheadMillis;
+    private final long retryDelayMillis;
+    private final ScheduledExecutorService scheduler;
+
+    private final AtomicReference<Token> current = new AtomicReference<>();
+    private final AtomicReference<CompletableFuture<Token>> inFlight = new AtomicReference<>();
+
+    /**
+     * @param name Nombre para logs e hilo de renovación
+     * @param fetcher Login que obtiene un token nuevo
+     * @param refreshAheadMillis Cuánto antes del vencimiento se renueva
+     * @param retryDelayMillis Espera antes de reintentar un login fallido
+     * @param virtualThreads Si la renovación corre en un hilo virtual
+     */
+    TokenHolder(String name, Fetcher fetcher, long refreshAheadMillis, long retryDelayMillis, boolean virtualThreads) {
+        this.name = name;
+        this.fetcher = fetcher;
+        this.refreshAheadMillis = refreshAheadMillis;
+        this.retryDelayMillis = retryDelayMillis;
+        ThreadFactory threadFactory = virtualThreads
+                ? Thread.ofVirtual().name(name + "-refresh").factory()
+                : Thread.ofPlatform().name(name + "-refresh").daemon(true).factory();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(threadFactory);
+    }
+
+    /**
+     * Devuelve un token vigente
+     *
+     * Solo bloquea si no hay ningún token vigente (primer uso, vencido o invalidado),
+     * y en ese caso espera la renovación en curso en lugar de iniciar otra.
+     */
+    String getToken() {
+        Token token = current.get();
+        long now = System.currentTimeMillis();
+
+        if (token != null && now < token.expiresAtMillis()) {
+            if (now >= token.expiresAtMillis() - refreshAheadMillis) {
+                refresh();
+            }
+            return token.value();
+        }
+
+        try {
+            return refresh().join().value();
+        } catch (CompletionException e) {
+            throw new RuntimeException("No se pudo obtener token (" + name + ")", e.getCause());
+        }
+    }
+
+    /**
+     * Descarta el token rechazado (401) y dispara una renovación
+     *
+     * Si el token ya fue reemplazado por otro no hace nada: varios 401 simultáneos
+     * con el mismo token producen un único login.
+     *
+     * @param rejected Token que recibió el 401, o null para descartar el actual
+     */
+    void invalidate(String rejected) {
+        Token token = current.get();
+        if (token == null) {
+            return;
+        }
+        if (rejected == null || rejected.equals(token.value())) {
+            if (current.compareAndSet(token, null)) {
+                logger.info("Token {} invalidado, se obtendrá uno nuevo", name);
+                refresh();
+            }
+        }
+    }
+
+    /**
+     * Renovación compartida: inicia un login si no hay uno en curso
+     */
+    private CompletableFuture<Token> refresh() {
+        CompletableFuture<Token> future = new CompletableFuture<>();
+        while (!inFlight.compareAndSet(null, future)) {
+            CompletableFuture<Token> existing = inFlight.get();
+            if (existing != null) {
+                return existing;
+            }
+        }
+
+        scheduler.execute(() -> {
+            try {
+                Token token = fetcher.fetch();
+                current.set(token);
+                long delay = Math.max(token.expiresAtMillis() - refreshAheadMillis - System.currentTimeMillis(), 1000L);
+                scheduler.schedule(this::refreshIfDue, delay, TimeUnit.MILLISECONDS);
+                logger.info("Token {} obtenido. Expira en {} segundos. Próxima renovación en {} segundos",
+                        name, (token.expiresAtMillis() - System.currentTimeMillis()) / 1000, delay / 1000);
+                inFlight.set(null);
+                future.complete(token);
+            } catch (Exception e) {
+                logger.error("Error al obtener token {}: {}", name, e.getMessage(), e);
+                scheduler.schedule(this::refreshIfDue, retryDelayMillis, TimeUnit.MILLISECONDS);
+                inFlight.set(null);
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Renovación programada: no hace nada si otra renovación ya dejó un token
+     * que todavía no entró en el margen de renovación
+     */
+    private void refreshIfDue() {
+        Token token = current.get();
+        if (token == null || System.currentTimeMillis() >= token.expiresAtMillis() - refreshAheadMillis) {
+            refresh();
+        }
+    }
+
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
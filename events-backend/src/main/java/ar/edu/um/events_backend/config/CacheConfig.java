@@ -0,0 +1,24 @@
+package ar.edu.um.events_backend.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Cache de lectura del catálogo de eventos (Caffeine, acotada por {@code spring.cache.caffeine.spec})
+ *
+ * - {@link #EVENT_SUMMARIES}: listado completo de eventos resumidos (una única entrada)
+ * - {@link #EVENT} / {@link #EVENT_SUMMARY}: evento por ID
+ *
+ * El listado completo de eventos no pasa por esta cache: se sirve ya serializado
+ * ({@code CatalogSnapshotService}). Las sincronizaciones invalidan solo los eventos que
+ * escriben o borran, y los listados si hubo algún cambio; las lecturas pasan por
+ * {@code CatalogCacheEvictor#get}, que no guarda lo cargado si hubo una invalidación mientras tanto.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String EVENT = "event";
+    public static final String EVENT_SUMMARIES = "eventSummaries";
+    public static final String EVENT_SUMMARY = "eventSummary";
+}
@@ -0,0 +1,137 @@
+package ar.edu.um.events_backend.config;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+
+import ar.edu.um.events_backend.exception.UpstreamUnavailableException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import reactor.core.publisher.Mono;
+
+/**
+ * Circuit breaker y bulkhead por endpoint para las llamadas al servicio externo
+ *
+ * Cada endpoint de {@code /api/endpoints/v1} (bloquear-asientos, realizar-venta,
+ * eventos, ...) tiene su propio circuit breaker y bulkhead, con el nombre
+ * {@code external-<endpoint>}; la configuración está en {@code resilience4j.*}.
+ * - Las respuestas 5xx y los errores de conexión/timeout cuentan como fallos
+ * - Con el circuito abierto o el bulkhead lleno la llamada falla al instante con
+ *   {@link UpstreamUnavailableException} (503), sin esperar al servicio externo
+ * - La llamada termina cuando se termina de leer el cuerpo de la respuesta, no al llegar
+ *   los encabezados: el permiso del bulkhead se mantiene durante la transferencia, los
+ *   errores a mitad del cuerpo cuentan como fallos y la duración (llamadas lentas) es la total
+ * - El estado de cada uno se publica como métrica (resilience4j.circuitbreaker.*, resilience4j.bulkhead.*)
+ */
+@Component
+public class ExternalApiResilienceFilter implements ExchangeFilterFunction {
+
+    private static final String ENDPOINTS_PATH = "/api/endpoints/v1/";
+
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final BulkheadRegistry bulkheadRegistry;
+
+    public ExternalApiResilienceFilter(CircuitBreakerRegistry circuitBreakerRegistry, BulkheadRegistry bulkheadRegistry) {
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+        this.bulkheadRegistry = bulkheadRegistry;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        String name = "external-" + endpointName(request.url().getPath());
+
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(name);
+        Bulkhead bulkhead = bulkheadRegistry.bulkhead(name);
+
+        return Mono.defer(() -> {
+            if (!bulkhead.tryAcquirePermission()) {
+                return Mono.error(new UpstreamUnavailableException(
+                        "Servicio externo saturado (" + name + "): demasiadas llamadas en curso",
+                        BulkheadFullException.createBulkheadFullException(bulkhead)));
+            }
+            if (!circuitBreaker.tryAcquirePermission()) {
+                bulkhead.onComplete();
+                return Mono.error(new UpstreamUnavailableException(
+                        "Servicio externo no disponible (" + name + "): circuito abierto",
+                        CallNotPermittedException.createCallNotPermittedException(circuitBreaker)));
+            }
+
+            UpstreamCall call = new UpstreamCall(circuitBreaker, bulkhead);
+            return next.exchange(request)
+                    .flatMap(response -> response.statusCode().is5xxServerError()
+                            ? response.<ClientResponse>createError()
+                            : Mono.just(response.mutate()
+                                    .body(body -> body
+                                            .doOnComplete(call::onSuccess)
+                                            .doOnError(call::onError)
+                                            .doOnCancel(call::onCancel))
+                                    .build()))
+                    .doOnError(call::onError)
+                    .doOnCancel(call::onCancel);
+        });
+    }
+
+    /**
+     * Una llamada en curso: libera el bulkhead y registra el resultado en el circuit breaker una sola vez
+     */
+    private static final class UpstreamCall {
+
+        private final CircuitBreaker circuitBreaker;
+        private final Bulkhead bulkhead;
+        private final long start;
+        private final AtomicBoolean finished = new AtomicBoolean();
+
+        UpstreamCall(CircuitBreaker circuitBreaker, Bulkhead bulkhead) {
+            this.circuitBreaker = circuitBreaker;
+            this.bulkhead = bulkhead;
+            this.start = circuitBreaker.getCurrentTimestamp();
+        }
+
+        void onSuccess() {
+            if (finished.compareAndSet(false, true)) {
+                circuitBreaker.onSuccess(elapsed(), circuitBreaker.getTimestampUnit());
+                bulkhead.onComplete();
+            }
+        }
+
+        void onError(Throwable error) {
+            if (finished.compareAndSet(false, true)) {
+                circuitBreaker.onError(elapsed(), circuitBreaker.getTimestampUnit(), error);
+                bulkhead.onComplete();
+            }
+        }
+
+        void onCancel() {
+            if (finished.compareAndSet(false, true)) {
+                circuitBreaker.releasePermission();
+                bulkhead.onComplete();
+            }
+        }
+
+        private long elapsed() {
+            return circuitBreaker.getCurrentTimestamp() - start;
+        }
+    }
+
+    /**
+     * Primer segmento después de /api/endpoints/v1/ (por ejemplo "evento" para /evento/3)
+     */
+    static String endpointName(String path) {
+        int start = path.indexOf(ENDPOINTS_PATH);
+        if (start < 0) {
+            return "other";
+        }
+        String rest = path.substring(start + ENDPOINTS_PATH.length());
+        int slash = rest.indexOf('/');
+        String segment = slash >= 0 ? rest.substring(0, slash) : rest;
+        return segment.isEmpty() ? "other" : segment;
+    }
+}
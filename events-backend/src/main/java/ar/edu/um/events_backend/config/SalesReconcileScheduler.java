@@ -0,0 +1,36 @@
+package ar.edu.um.events_backend.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import ar.edu.um.events_backend.service.Sale_db_Service;
+
+/**
+ * Conciliación periódica de las ventas locales con el listado de cátedra
+ *
+ * Cada venta realizada se guarda al momento a partir de la respuesta de
+ * realizar-venta; esta tarea descarga el listado completo en segundo plano
+ * cada {@code sync.sales.reconcile-ms} para incorporar cambios hechos por fuera.
+ */
+@Configuration
+@EnableScheduling
+public class SalesReconcileScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(SalesReconcileScheduler.class);
+
+    private final Sale_db_Service saleDbService;
+
+    public SalesReconcileScheduler(Sale_db_Service saleDbService) {
+        this.saleDbService = saleDbService;
+    }
+
+    @Scheduled(initialDelayString = "${sync.sales.reconcile-initial-delay-ms:60000}",
+               fixedDelayString = "${sync.sales.reconcile-ms:300000}")
+    public void reconcileSales() {
+        logger.info("Iniciando conciliación periódica de ventas");
+        saleDbService.syncSalesFromExternal();
+    }
+}
@@ -2,12 +2,15 @@ package ar.edu.um.events_backend.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import jakarta.servlet.DispatcherType;
+
 import ar.edu.um.events_backend.auth.JwtAuthFilter;
 import lombok.RequiredArgsConstructor;
 
@@ -31,11 +34,16 @@ public class SecurityConfig {
                 
                 // Configurar autorización de peticiones HTTP
                 .authorizeHttpRequests(auth -> auth
+                        // Respuestas asíncronas (endpoints que devuelven Mono): la petición
+                        // original ya fue autenticada, el redespacho no trae el token
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
+                        
                         // Ruta pública: permite obtener token sin autenticación
                         .requestMatchers("/api/auth/token").permitAll()
                         
-                        // Rutas internas: para comunicación entre microservicios
-                        .requestMatchers("/internal/**").permitAll()
+                        // Ruta interna: notificaciones de sincronización del proxy.
+                        // Las estadísticas de diagnóstico de /internal/** requieren JWT
+                        .requestMatchers(HttpMethod.POST, "/internal/events/sync").permitAll()
                         
                         // Todas las demás rutas requieren autenticación JWT
                         .anyRequest().authenticated()
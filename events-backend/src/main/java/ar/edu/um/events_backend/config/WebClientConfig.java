@@ -1,8 +1,11 @@
 package ar.edu.um.events_backend.config;
 
+import java.util.concurrent.Callable;
+
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.reactive.function.client.ClientRequest;
 import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
 import org.springframework.web.reactive.function.client.WebClient;
@@ -10,73 +13,95 @@ import org.springframework.web.reactive.function.client.WebClient;
 import ar.edu.um.events_backend.auth.ExternalAuthService;
 import ar.edu.um.events_backend.auth.ProxyAuthService;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 @Configuration
 public class WebClientConfig {
 
     @Bean("externalApiClient")
-    public WebClient externalApiClient(WebClient.Builder builder, ExternalAuthService authService, @Value("${externalAuth.base-url}") String baseUrl) {
-        ExchangeFilterFunction authFilter = ExchangeFilterFunction.ofRequestProcessor(request -> {
-            String token = authService.getToken();
-            ClientRequest req = ClientRequest.from(request)
-                    .headers(h -> h.setBearerAuth(token))
-                    .build();
-            return Mono.just(req);
-        });
+    public WebClient externalApiClient(WebClient.Builder builder, ExternalAuthService authService,
+                                       UpstreamHttpClients upstreamHttpClients, ExternalApiResilienceFilter resilienceFilter,
+                                       @Value("${externalAuth.base-url}") String baseUrl) {
+        ExchangeFilterFunction authFilter = ExchangeFilterFunction.ofRequestProcessor(request ->
+                tokenOffEventLoop(authService::getToken)
+                        .map(token -> ClientRequest.from(request)
+                                .headers(h -> h.setBearerAuth(token))
+                                .build()));
 
         ExchangeFilterFunction retryOn401 = (request, next) ->
                 next.exchange(request).flatMap(response -> {
                     if (response.statusCode().value() == 401) {
-                        return response.bodyToMono(String.class).defaultIfEmpty("").flatMap(b -> {
-                            authService.invalidateToken();
-                            String newToken = authService.getToken();
-                            ClientRequest retry = ClientRequest.from(request)
-                                    .headers(h -> h.setBearerAuth(newToken))
-                                    .build();
-                            return next.exchange(retry);
-                        });
+                        return response.bodyToMono(String.class).defaultIfEmpty("")
+                                .then(tokenOffEventLoop(() -> {
+                                    authService.invalidateToken(bearerToken(request));
+                                    return authService.getToken();
+                                }))
+                                .flatMap(newToken -> next.exchange(ClientRequest.from(request)
+                                        .headers(h -> h.setBearerAuth(newToken))
+                                        .build()));
                     }
                     return Mono.just(response);
                 });
 
-        return builder.baseUrl(baseUrl).filter(authFilter).filter(retryOn401).build();
+        // El filtro de resiliencia va primero para cubrir también la obtención del token y el reintento
+        return upstreamHttpClients.configure(builder, "external-api")
+                .baseUrl(baseUrl).filter(resilienceFilter).filter(authFilter).filter(retryOn401).build();
     }
 
     /**
      * WebClient para comunicarse con el proxy
      * 
      * Incluye:
+     * - Pool de conexiones y timeouts propios (http.clients.proxy)
      * - Autenticación JWT automática usando ProxyAuthService
      * - Renovación automática del token cuando expira (401)
      */
     @Bean("proxyClient")
-    public WebClient proxyClient(WebClient.Builder builder, ProxyAuthService proxyAuthService, @Value("${proxy.base-url:http://localhost:8082}") String proxyBaseUrl) {
+    public WebClient proxyClient(WebClient.Builder builder, ProxyAuthService proxyAuthService,
+                                 UpstreamHttpClients upstreamHttpClients, @Value("${proxy.base-url:http://localhost:8082}") String proxyBaseUrl) {
         // Filtro para agregar el token JWT en cada petición
-        ExchangeFilterFunction authFilter = ExchangeFilterFunction.ofRequestProcessor(request -> {
-            String token = proxyAuthService.getToken();
-            ClientRequest req = ClientRequest.from(request)
-                    .headers(h -> h.setBearerAuth(token))
-                    .build();
-            return Mono.just(req);
-        });
+        ExchangeFilterFunction authFilter = ExchangeFilterFunction.ofRequestProcessor(request ->
+                tokenOffEventLoop(proxyAuthService::getToken)
+                        .map(token -> ClientRequest.from(request)
+                                .headers(h -> h.setBearerAuth(token))
+                                .build()));
 
         // Filtro para manejar 401 (token expirado) y reintentar con nuevo token
         ExchangeFilterFunction retryOn401 = (request, next) ->
                 next.exchange(request).flatMap(response -> {
                     if (response.statusCode().value() == 401) {
                         // Token expirado, invalidar y obtener uno nuevo
-                        return response.bodyToMono(String.class).defaultIfEmpty("").flatMap(b -> {
-                            proxyAuthService.invalidateToken();
-                            String newToken = proxyAuthService.getToken();
-                            ClientRequest retry = ClientRequest.from(request)
-                                    .headers(h -> h.setBearerAuth(newToken))
-                                    .build();
-                            return next.exchange(retry);
-                        });
+                        return response.bodyToMono(String.class).defaultIfEmpty("")
+                                .then(tokenOffEventLoop(() -> {
+                                    proxyAuthService.invalidateToken(bearerToken(request));
+                                    return proxyAuthService.getToken();
+                                }))
+                                .flatMap(newToken -> next.exchange(ClientRequest.from(request)
+                                        .headers(h -> h.setBearerAuth(newToken))
+                                        .build()));
                     }
                     return Mono.just(response);
                 });
 
-        return builder.baseUrl(proxyBaseUrl).filter(authFilter).filter(retryOn401).build();
+        return upstreamHttpClients.configure(builder, "proxy")
+                .baseUrl(proxyBaseUrl).filter(authFilter).filter(retryOn401).build();
+    }
+
+    /**
+     * Obtiene el token en un hilo de boundedElastic
+     * 
+     * La obtención del token puede bloquear (login contra el servicio externo),
+     * y los filtros corren en los hilos de Reactor Netty cuando la petición es reactiva.
+     */
+    private static Mono<String> tokenOffEventLoop(Callable<String> tokenSupplier) {
+        return Mono.fromCallable(tokenSupplier).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Token enviado en la petición (para invalidar solo ese token ante un 401)
+     */
+    private static String bearerToken(ClientRequest request) {
+        String header = request.headers().getFirst(HttpHeaders.AUTHORIZATION);
+        return header != null && header.startsWith("Bearer ") ? header.substring(7) : null;
     }
 }
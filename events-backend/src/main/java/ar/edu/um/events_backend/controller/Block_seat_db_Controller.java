@@ -9,6 +9,7 @@ import org.springframework.web.bind.annotation.RestController;
 import ar.edu.um.events_backend.dto.Block_seat_db_Request;
 import ar.edu.um.events_backend.dto.Block_seat_db_Response;
 import ar.edu.um.events_backend.service.Block_seat_db_Service;
+import reactor.core.publisher.Mono;
 
 @RestController
 @RequestMapping("/api/db/block-seats")
@@ -20,8 +21,7 @@ public class Block_seat_db_Controller {
     }
 
     @PostMapping
-    public ResponseEntity<Block_seat_db_Response> blockSeats(@RequestBody Block_seat_db_Request request) {
-        Block_seat_db_Response response = blockSeatService.blockSeatsExternal(request);
-        return ResponseEntity.ok(response);
+    public Mono<ResponseEntity<Block_seat_db_Response>> blockSeats(@RequestBody Block_seat_db_Request request) {
+        return blockSeatService.blockSeatsExternal(request).map(ResponseEntity::ok);
     }
 }
@@ -1,14 +1,18 @@
 package ar.edu.um.events_backend.controller;
 
-import java.util.List;
-
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import ar.edu.um.events_backend.entity.Event_db;
+import ar.edu.um.events_backend.service.CatalogSnapshotService;
 import ar.edu.um.events_backend.service.Event_db_Service;
 
 @RestController
@@ -16,15 +20,44 @@ import ar.edu.um.events_backend.service.Event_db_Service;
 public class Events_db_Controller {
 
     private final Event_db_Service eventDbService;
+    private final CatalogSnapshotService catalogSnapshotService;
 
-    public Events_db_Controller(Event_db_Service eventDbService) {
+    public Events_db_Controller(Event_db_Service eventDbService, CatalogSnapshotService catalogSnapshotService) {
         this.eventDbService = eventDbService;
+        this.catalogSnapshotService = catalogSnapshotService;
     }
 
+    /**
+     * Catálogo completo de eventos, desde el JSON ya serializado
+     * 
+     * Responde con ETag fuerte: si el cliente envía {@code If-None-Match} con el ETag
+     * vigente se responde 304 sin cuerpo. Si acepta gzip se envía la versión ya comprimida.
+     */
     @GetMapping
-    public ResponseEntity<List<Event_db>> getAllEvents() {
-        List<Event_db> events = eventDbService.findAll();
-        return ResponseEntity.ok(events);
+    public ResponseEntity<byte[]> getAllEvents(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        CatalogSnapshotService.Snapshot snapshot = catalogSnapshotService.getSnapshot();
+        boolean gzip = acceptsGzip(acceptEncoding);
+        String etag = gzip ? snapshot.gzipEtag() : snapshot.etag();
+
+        if (matches(ifNoneMatch, snapshot)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache())
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(snapshot.gzip());
+        }
+        return response.body(snapshot.json());
     }
 
     @GetMapping("/{id}")
@@ -33,4 +66,40 @@ public class Events_db_Controller {
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
+
+    /**
+     * Si alguno de los ETag de If-None-Match corresponde al catálogo vigente
+     * (comparación débil, como indica la RFC 9110 para If-None-Match)
+     */
+    private static boolean matches(String ifNoneMatch, CatalogSnapshotService.Snapshot snapshot) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            String candidate = tag.trim();
+            if (candidate.equals("*")) {
+                return true;
+            }
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if (candidate.equals(snapshot.etag()) || candidate.equals(snapshot.gzipEtag())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length < 2 || !parts[1].trim().replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
 }
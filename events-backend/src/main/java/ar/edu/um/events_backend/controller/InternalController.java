@@ -1,29 +1,53 @@
 package ar.edu.um.events_backend.controller;
 
-import ar.edu.um.events_backend.service.EventSummary_db_Service;
+import ar.edu.um.events_backend.service.CatalogSnapshotService;
+import ar.edu.um.events_backend.service.EventSyncCoordinator;
+import ar.edu.um.events_backend.service.EventUpdateMessageParser;
+import ar.edu.um.events_backend.service.RedisService;
+import ar.edu.um.events_backend.service.SeatStreamService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.Map;
+import java.util.Set;
+
 @RestController
 @RequestMapping("/internal")
 public class InternalController {
 
     private static final Logger logger = LoggerFactory.getLogger(InternalController.class);
     
-    private final EventSummary_db_Service eventSummaryService;
+    private final EventSyncCoordinator syncCoordinator;
+    private final EventUpdateMessageParser messageParser;
+    private final SeatStreamService seatStreamService;
+    private final RedisService redisService;
+    private final CatalogSnapshotService catalogSnapshotService;
 
-    public InternalController(EventSummary_db_Service eventSummaryService) {
-        this.eventSummaryService = eventSummaryService;
+    public InternalController(EventSyncCoordinator syncCoordinator,
+                              EventUpdateMessageParser messageParser,
+                              SeatStreamService seatStreamService,
+                              RedisService redisService,
+                              CatalogSnapshotService catalogSnapshotService) {
+        this.syncCoordinator = syncCoordinator;
+        this.messageParser = messageParser;
+        this.seatStreamService = seatStreamService;
+        this.redisService = redisService;
+        this.catalogSnapshotService = catalogSnapshotService;
     }
 
     /**
      * Endpoint interno para recibir notificaciones del proxy cuando Kafka detecta cambios.
-     * Al recibir cualquier notificación, sincroniza todos los eventos desde el servicio externo.
+     * 
+     * La sincronización no se ejecuta en la petición: se encola en el coordinador,
+     * que agrupa las notificaciones cercanas en una sola ejecución y responde 202 de inmediato.
+     * Si el mensaje indica qué eventos cambiaron, se sincronizan solo esos eventos;
+     * si no se puede interpretar, se sincronizan todos desde el servicio externo.
      */
     @PostMapping("/events/sync")
     public ResponseEntity<String> syncEvents(@RequestBody(required = false) String message) {
@@ -32,13 +56,42 @@ public class InternalController {
             logger.info("Mensaje recibido: {}", message);
         }
         
-        try {
-            eventSummaryService.syncAllEventsFromExternal();
-            return ResponseEntity.ok("Sincronización de eventos completada exitosamente");
-        } catch (Exception e) {
-            logger.error("Error al procesar sincronización de eventos: {}", e.getMessage(), e);
-            return ResponseEntity.internalServerError()
-                    .body("Error al sincronizar eventos: " + e.getMessage());
-        }
+        Set<Long> eventIds = messageParser.parseEventIds(message);
+        syncCoordinator.submit(eventIds);
+        
+        String target = eventIds.isEmpty() ? "todos los eventos" : "eventos " + eventIds;
+        return ResponseEntity.accepted().body("Sincronización de " + target + " encolada");
+    }
+
+    /**
+     * Estado de la última sincronización (resultado, duración) y de las notificaciones pendientes
+     */
+    @GetMapping("/events/sync/status")
+    public ResponseEntity<Map<String, Object>> getSyncStatus() {
+        return ResponseEntity.ok(syncCoordinator.getStatus());
+    }
+
+    /**
+     * Transmisiones SSE activas del mapa de asientos (eventos sondeados y clientes por evento)
+     */
+    @GetMapping("/seats/stream/stats")
+    public ResponseEntity<Map<String, Object>> getSeatStreamStats() {
+        return ResponseEntity.ok(seatStreamService.getStats());
+    }
+
+    /**
+     * Consultas de asientos al proxy: pedidos recibidos frente a llamadas realmente hechas
+     */
+    @GetMapping("/seats/single-flight/stats")
+    public ResponseEntity<Map<String, Object>> getSeatsSingleFlightStats() {
+        return ResponseEntity.ok(redisService.getSeatsStats());
+    }
+
+    /**
+     * Catálogo de eventos serializado: si está construido, ETag y tamaños
+     */
+    @GetMapping("/events/snapshot/stats")
+    public ResponseEntity<Map<String, Object>> getCatalogSnapshotStats() {
+        return ResponseEntity.ok(catalogSnapshotService.getStats());
     }
 }
@@ -1,22 +1,74 @@
 package ar.edu.um.events_backend.controller;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import ar.edu.um.events_backend.service.Event_db_Service;
 import ar.edu.um.events_backend.service.RedisService;
+import ar.edu.um.events_backend.service.SeatStreamService;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 @RestController
 @RequestMapping("/api/db/events")
 public class RedisController {
     
     private final RedisService redisService;
+    private final SeatStreamService seatStreamService;
+    private final Event_db_Service eventDbService;
     
-    public RedisController(RedisService redisService) {
+    public RedisController(RedisService redisService, SeatStreamService seatStreamService,
+                           Event_db_Service eventDbService) {
         this.redisService = redisService;
+        this.seatStreamService = seatStreamService;
+        this.eventDbService = eventDbService;
+    }
+    
+    /**
+     * Disponibilidad de asientos de varios eventos en una sola consulta
+     * GET /api/db/events/availability?ids=1,2,3
+     * 
+     * Las cantidades de bloqueados/vendidos salen de una única llamada al proxy (un MGET
+     * en Redis) y la capacidad (filas x columnas) de la base local.
+     * @param ids IDs de los eventos
+     * @return Por evento: capacidad, bloqueados, vendidos y disponibles
+     */
+    @GetMapping("/availability")
+    public Mono<ResponseEntity<List<Map<String, Object>>>> getAvailability(@RequestParam List<Long> ids) {
+        Mono<Map<Long, Integer>> capacities = Mono.fromCallable(() -> eventDbService.findCapacityByIds(ids))
+                .subscribeOn(Schedulers.boundedElastic());
+        
+        return Mono.zip(capacities, redisService.getSeatCounts(ids))
+                .map(tuple -> {
+                    List<Map<String, Object>> availability = new ArrayList<>();
+                    for (Long id : ids) {
+                        Integer capacidad = tuple.getT1().get(id);
+                        Map<String, Integer> counts = tuple.getT2().getOrDefault(String.valueOf(id), Map.of());
+                        int bloqueados = counts.getOrDefault("bloqueados", 0);
+                        int vendidos = counts.getOrDefault("vendidos", 0);
+                        
+                        Map<String, Object> event = new LinkedHashMap<>();
+                        event.put("eventoId", id);
+                        event.put("capacidad", capacidad);
+                        event.put("bloqueados", bloqueados);
+                        event.put("vendidos", vendidos);
+                        event.put("disponibles", capacidad != null ? Math.max(capacidad - bloqueados - vendidos, 0) : null);
+                        availability.add(event);
+                    }
+                    return ResponseEntity.ok(availability);
+                });
     }
     
     /**
@@ -26,20 +78,26 @@ public class RedisController {
      * @return JSON con todos los asientos y sus estados
      */
     @GetMapping("/{eventId}/seats")
-    public ResponseEntity<String> getSeats(@PathVariable Long eventId) {
-        try {
-            String seats = redisService.getSeatsForEvent(eventId);
-            
-            if (seats == null) {
-                return ResponseEntity.notFound().build();
-            }
-            
-            return ResponseEntity.ok(seats);
-            
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body("{\"error\": \"" + e.getMessage() + "\"}");
-        }
+    public Mono<ResponseEntity<String>> getSeats(@PathVariable Long eventId) {
+        return redisService.getSeatsForEvent(eventId)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build())
+                .onErrorResume(e -> Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body("{\"error\": \"" + e.getMessage() + "\"}")));
+    }
+    
+    /**
+     * Mapa de asientos de un evento en vivo (Server-Sent Events)
+     * GET /api/db/events/{eventId}/seats/stream
+     * 
+     * Envía un evento "snapshot" con el mapa completo al conectarse y luego
+     * eventos "delta" solo con los asientos que cambian de estado.
+     * @param eventId ID del evento
+     * @return Flujo SSE del mapa de asientos
+     */
+    @GetMapping(value = "/{eventId}/seats/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamSeats(@PathVariable Long eventId) {
+        return seatStreamService.subscribe(eventId);
     }
     
     /**
@@ -51,21 +109,13 @@ public class RedisController {
      * @return JSON con el estado del asiento específico
      */
     @GetMapping("/{eventId}/seats/{row}/{col}")
-    public ResponseEntity<String> getSeat(@PathVariable Long eventId, 
+    public Mono<ResponseEntity<String>> getSeat(@PathVariable Long eventId, 
                                           @PathVariable int row, 
                                           @PathVariable int col) {
-        try {
-            String seat = redisService.getSeatDetail(eventId, row, col);
-            
-            if (seat == null) {
-                return ResponseEntity.notFound().build();
-            }
-            
-            return ResponseEntity.ok(seat);
-            
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body("{\"error\": \"" + e.getMessage() + "\"}");
-        }
+        return redisService.getSeatDetail(eventId, row, col)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build())
+                .onErrorResume(e -> Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body("{\"error\": \"" + e.getMessage() + "\"}")));
     }
 }
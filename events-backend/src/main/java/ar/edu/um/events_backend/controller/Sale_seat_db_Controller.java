@@ -9,6 +9,7 @@ import org.springframework.web.bind.annotation.RestController;
 import ar.edu.um.events_backend.dto.Sale_seat_db_Request;
 import ar.edu.um.events_backend.dto.Sale_seat_db_Response;
 import ar.edu.um.events_backend.service.Sale_seat_db_Service;
+import reactor.core.publisher.Mono;
 
 @RestController
 @RequestMapping("/api/db/sale-seats")
@@ -21,8 +22,7 @@ public class Sale_seat_db_Controller {
     }
 
     @PostMapping
-    public ResponseEntity<Sale_seat_db_Response> sellSeats(@RequestBody Sale_seat_db_Request request) {
-        Sale_seat_db_Response response = saleSeatsService.sellSeats(request);
-        return ResponseEntity.ok(response);
+    public Mono<ResponseEntity<Sale_seat_db_Response>> sellSeats(@RequestBody Sale_seat_db_Request request) {
+        return saleSeatsService.sellSeats(request).map(ResponseEntity::ok);
     }
 }
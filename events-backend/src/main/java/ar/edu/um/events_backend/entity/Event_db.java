@@ -5,6 +5,8 @@ import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import jakarta.persistence.CollectionTable;
 import jakarta.persistence.Column;
 import jakarta.persistence.ElementCollection;
@@ -43,6 +45,11 @@ public class Event_db {
     @CollectionTable(name = "event_integrantes", joinColumns = @JoinColumn(name = "event_id"))
     private List<Integrante> integrantes = new ArrayList<>();
     
+    // Hash del contenido recibido del servicio externo, para detectar cambios en la sincronización
+    @JsonIgnore
+    @Column(length = 64)
+    private String contentHash;
+    
     @Embeddable
     public static class Integrante {
         private String nombre;
@@ -98,4 +105,7 @@ public class Event_db {
     
     public List<Integrante> getIntegrantes() { return integrantes; }
     public void setIntegrantes(List<Integrante> integrantes) { this.integrantes = integrantes; }
+    
+    public String getContentHash() { return contentHash; }
+    public void setContentHash(String contentHash) { this.contentHash = contentHash; }
 }
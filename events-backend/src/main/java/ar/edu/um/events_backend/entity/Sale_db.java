@@ -1,7 +1,10 @@
 package ar.edu.um.events_backend.entity;
 
+import java.time.Instant;
 import java.time.ZonedDateTime;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
@@ -27,6 +30,10 @@ public class Sale_db {
     @Lob
     @Column(columnDefinition = "TEXT")
     private String asientosJson;
+    
+    // Última escritura local de la venta; la conciliación no borra ventas escritas después de empezar
+    @JsonIgnore
+    private Instant actualizadoEn;
 
     public Long getVentaId() { return ventaId; }
     public void setVentaId(Long ventaId) { this.ventaId = ventaId; }
@@ -51,4 +58,7 @@ public class Sale_db {
 
     public String getAsientosJson() { return asientosJson; }
     public void setAsientosJson(String asientosJson) { this.asientosJson = asientosJson; }
+
+    public Instant getActualizadoEn() { return actualizadoEn; }
+    public void setActualizadoEn(Instant actualizadoEn) { this.actualizadoEn = actualizadoEn; }
 }
@@ -22,6 +22,18 @@ public class ApiExceptionHandler extends ResponseEntityExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(err);
     }
 
+    @ExceptionHandler(UpstreamUnavailableException.class)
+    protected ResponseEntity<Object> handleUpstreamUnavailable(UpstreamUnavailableException ex) {
+        ApiError err = new ApiError(HttpStatus.SERVICE_UNAVAILABLE.value(), ex.getMessage(), List.of(ex.getMessage()));
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(err);
+    }
+
+    @ExceptionHandler(SeatConflictException.class)
+    protected ResponseEntity<Object> handleSeatConflict(SeatConflictException ex) {
+        ApiError err = new ApiError(HttpStatus.CONFLICT.value(), ex.getMessage(), ex.getAsientos());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(err);
+    }
+
         @Override
         protected ResponseEntity<Object> handleMethodArgumentNotValid(MethodArgumentNotValidException ex,
             HttpHeaders headers,
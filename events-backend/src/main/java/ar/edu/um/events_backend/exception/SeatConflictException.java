@@ -0,0 +1,21 @@
+package ar.edu.um.events_backend.exception;
+
+import java.util.List;
+
+/**
+ * Los asientos pedidos ya figuran como bloqueados o vendidos, por lo que
+ * la operación se rechaza sin llamar al servicio externo
+ */
+public class SeatConflictException extends RuntimeException {
+
+    private final List<String> asientos;
+
+    public SeatConflictException(String message, List<String> asientos) {
+        super(message);
+        this.asientos = asientos;
+    }
+
+    public List<String> getAsientos() {
+        return asientos;
+    }
+}
@@ -0,0 +1,11 @@
+package ar.edu.um.events_backend.exception;
+
+/**
+ * El servicio externo no se llama porque su circuit breaker está abierto
+ * o porque se alcanzó el límite de llamadas concurrentes (bulkhead)
+ */
+public class UpstreamUnavailableException extends RuntimeException {
+    public UpstreamUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,19 @@
+package ar.edu.um.events_backend.repository;
+
+import java.util.Collection;
+
+/**
+ * Fragmento de repositorio para insertar entidades nuevas en lote
+ *
+ * Las entidades sincronizadas usan IDs asignados, por lo que {@code save()} hace
+ * un SELECT (merge) antes de cada INSERT. {@link #persistAll(Collection)} llama
+ * directamente a {@code persist}, y junto con {@code hibernate.jdbc.batch_size}
+ * los INSERT se envían agrupados.
+ */
+public interface BatchPersistRepository<T> {
+
+    /**
+     * Inserta entidades que se sabe que no existen en la base
+     */
+    void persistAll(Collection<T> entities);
+}
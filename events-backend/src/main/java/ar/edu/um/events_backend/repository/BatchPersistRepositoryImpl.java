@@ -0,0 +1,30 @@
+package ar.edu.um.events_backend.repository;
+
+import java.util.Collection;
+
+import org.springframework.beans.factory.annotation.Value;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+public class BatchPersistRepositoryImpl<T> implements BatchPersistRepository<T> {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:500}")
+    private int batchSize;
+
+    @Override
+    public void persistAll(Collection<T> entities) {
+        int count = 0;
+        for (T entity : entities) {
+            entityManager.persist(entity);
+            // Vaciar el contexto en cada lote para no acumular todas las entidades en memoria
+            if (++count % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+    }
+}
@@ -1,10 +1,15 @@
 package ar.edu.um.events_backend.repository;
 
+import java.util.List;
+
 import ar.edu.um.events_backend.entity.EventSummary_db;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface EventSummary_db_Repository extends JpaRepository<EventSummary_db, Long> {
-    // Custom queries can be added here if needed
+public interface EventSummary_db_Repository extends JpaRepository<EventSummary_db, Long>, BatchPersistRepository<EventSummary_db> {
+
+    @Query("select e.id from EventSummary_db e")
+    List<Long> findAllIds();
 }
@@ -1,10 +1,47 @@
 package ar.edu.um.events_backend.repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import ar.edu.um.events_backend.entity.Event_db;
 
 @Repository
-public interface Event_db_Repository extends JpaRepository<Event_db, Long> {
+public interface Event_db_Repository extends JpaRepository<Event_db, Long>, BatchPersistRepository<Event_db> {
+
+    // Los integrantes se cargan en la misma consulta (sin una consulta extra por evento)
+    @Override
+    @EntityGraph(attributePaths = "integrantes")
+    List<Event_db> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = "integrantes")
+    Optional<Event_db> findById(Long id);
+
+    @Override
+    @EntityGraph(attributePaths = "integrantes")
+    List<Event_db> findAllById(Iterable<Long> ids);
+
+    // Devuelve pares [id, contentHash] sin cargar las entidades ni sus integrantes
+    @Query("select e.id, e.contentHash from Event_db e where e.id in :ids")
+    List<Object[]> findIdAndContentHashByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select e.id from Event_db e")
+    List<Long> findAllIds();
+
+    // Devuelve tríos [id, filaAsientos, columnAsientos] para calcular la capacidad de cada evento
+    @Query("select e.id, e.filaAsientos, e.columnAsientos from Event_db e where e.id in :ids")
+    List<Object[]> findSeatLayoutByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Los integrantes son una @ElementCollection: hay que borrarlos antes del borrado masivo de eventos
+    @Modifying
+    @Query(value = "delete from event_integrantes where event_id in (:ids)", nativeQuery = true)
+    void deleteIntegrantesByEventIds(@Param("ids") Collection<Long> ids);
 }
@@ -1,13 +1,20 @@
 package ar.edu.um.events_backend.repository;
 
+import java.time.Instant;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import ar.edu.um.events_backend.entity.Sale_db;
 
 @Repository
-public interface Sale_db_Repository extends JpaRepository<Sale_db, Long> {
+public interface Sale_db_Repository extends JpaRepository<Sale_db, Long>, BatchPersistRepository<Sale_db> {
     List<Sale_db> findByEventoId(Long eventoId);
+
+    // Ventas escritas antes del instante indicado (las filas previas a la columna no tienen fecha)
+    @Query("select e.ventaId from Sale_db e where e.actualizadoEn is null or e.actualizadoEn < :since")
+    List<Long> findIdsUpdatedBefore(@Param("since") Instant since);
 }
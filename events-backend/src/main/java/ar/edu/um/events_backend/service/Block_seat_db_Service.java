@@ -1,27 +1,110 @@
 package ar.edu.um.events_backend.service;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import ar.edu.um.events_backend.dto.Block_seat_db_Request;
 import ar.edu.um.events_backend.dto.Block_seat_db_Response;
+import ar.edu.um.events_backend.exception.SeatConflictException;
+import reactor.core.publisher.Mono;
 
 @Service
 public class Block_seat_db_Service {
+
+    private static final Logger logger = LoggerFactory.getLogger(Block_seat_db_Service.class);
+
     private final WebClient externalApiClient;
+    private final RedisService redisService;
+    private final ObjectMapper objectMapper;
+    private final boolean precheckEnabled;
 
-    public Block_seat_db_Service(@Qualifier("externalApiClient") WebClient externalApiClient) {
+    public Block_seat_db_Service(@Qualifier("externalApiClient") WebClient externalApiClient,
+                                 RedisService redisService,
+                                 ObjectMapper objectMapper,
+                                 @Value("${seats.block-precheck.enabled:true}") boolean precheckEnabled) {
         this.externalApiClient = externalApiClient;
+        this.redisService = redisService;
+        this.objectMapper = objectMapper;
+        this.precheckEnabled = precheckEnabled;
     }
 
-    public Block_seat_db_Response blockSeatsExternal(Block_seat_db_Request request) {
-        return externalApiClient
+    /**
+     * Bloquea asientos en el servicio externo sin bloquear el hilo que atiende la petición
+     *
+     * Antes de llamar al servicio externo se busca cada asiento pedido en el mapa del evento
+     * que devuelve el proxy; si alguno ya está bloqueado o vendido se rechaza con {@link SeatConflictException} (409).
+     * Si el proxy no responde, la petición se envía igual: el servicio externo tiene la última palabra.
+     */
+    public Mono<Block_seat_db_Response> blockSeatsExternal(Block_seat_db_Request request) {
+        return precheck(request).then(externalApiClient
             .post()
             .uri("/api/endpoints/v1/bloquear-asientos")
             .bodyValue(request)
             .retrieve()
-            .bodyToMono(Block_seat_db_Response.class)
-            .block();
+            .bodyToMono(Block_seat_db_Response.class));
+    }
+
+    /**
+     * Busca los asientos pedidos en el mapa del evento, con una única consulta al proxy
+     * (compartida con las demás lecturas del mismo evento, ver {@link RedisService#getSeatsForEvent})
+     */
+    private Mono<Void> precheck(Block_seat_db_Request request) {
+        if (!precheckEnabled || request.getEventoId() == null
+                || request.getAsientos() == null || request.getAsientos().isEmpty()) {
+            return Mono.empty();
+        }
+
+        Long eventId = request.getEventoId();
+        return redisService.getSeatsForEvent(eventId)
+            .map(json -> conflicts(json, request.getAsientos()))
+            .onErrorResume(e -> {
+                logger.warn("No se pudo verificar en el proxy los asientos del evento {}, se envía el bloqueo igual: {}",
+                        eventId, e.getMessage());
+                return Mono.just(List.of());
+            })
+            .flatMap(conflicts -> {
+                if (conflicts.isEmpty()) {
+                    return Mono.empty();
+                }
+                logger.info("Bloqueo del evento {} rechazado sin llamar al servicio externo: {}", eventId, conflicts);
+                return Mono.error(new SeatConflictException("Asientos no disponibles", conflicts));
+            });
+    }
+
+    /**
+     * Descripción de cada asiento pedido que el proxy informa bloqueado o vendido
+     *
+     * Los asientos que no figuran en el mapa están libres.
+     */
+    private List<String> conflicts(String seatsJson, List<Block_seat_db_Request.AsientoRequest> asientos) {
+        Map<String, String> estados = new HashMap<>();
+        try {
+            for (JsonNode seat : objectMapper.readTree(seatsJson).path("asientos")) {
+                estados.put(seat.path("fila").asInt() + ":" + seat.path("columna").asInt(), seat.path("estado").asText(""));
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("Respuesta inválida del proxy", e);
+        }
+
+        List<String> conflicts = new ArrayList<>();
+        for (Block_seat_db_Request.AsientoRequest asiento : asientos) {
+            String estado = estados.getOrDefault(asiento.getFila() + ":" + asiento.getColumna(), "");
+            if (estado.equalsIgnoreCase("bloqueado") || estado.equalsIgnoreCase("vendido")) {
+                conflicts.add("Fila " + asiento.getFila() + ", columna " + asiento.getColumna() + ": " + estado.toLowerCase());
+            }
+        }
+        return conflicts;
     }
 }
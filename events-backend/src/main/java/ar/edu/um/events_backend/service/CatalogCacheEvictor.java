@@ -0,0 +1,94 @@
+package ar.edu.um.events_backend.service;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import ar.edu.um.events_backend.config.CacheConfig;
+
+/**
+ * Invalida la cache del catálogo cuando una sincronización cambia filas
+ *
+ * Se llama después del commit de cada lote, con los IDs efectivamente escritos o borrados:
+ * se descartan esas entradas por ID y el listado completo; el resto sigue vigente.
+ * El listado de eventos completos es el catálogo serializado ({@link CatalogSnapshotService}).
+ *
+ * Las lecturas cacheadas pasan por {@link #get}: si una invalidación ocurre mientras se
+ * carga un valor, el resultado se usa para esa petición pero no se guarda (como en
+ * {@link CatalogSnapshotService}), así una carga vieja no sobrevive hasta el vencimiento.
+ */
+@Component
+public class CatalogCacheEvictor {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogCacheEvictor.class);
+
+    private final CacheManager cacheManager;
+    private final CatalogSnapshotService catalogSnapshotService;
+    private final AtomicLong generation = new AtomicLong();
+
+    public CatalogCacheEvictor(CacheManager cacheManager, CatalogSnapshotService catalogSnapshotService) {
+        this.cacheManager = cacheManager;
+        this.catalogSnapshotService = catalogSnapshotService;
+    }
+
+    /**
+     * Valor de la cache indicada, o del loader si no está (los null no se guardan)
+     */
+    public <T> T get(String cacheName, Object key, Class<T> type, Supplier<T> loader) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            return loader.get();
+        }
+        T cached = cache.get(key, type);
+        if (cached != null) {
+            return cached;
+        }
+        long loadGeneration = generation.get();
+        T value = loader.get();
+        if (value != null && generation.get() == loadGeneration) {
+            cache.put(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * Eventos completos ({@code Event_db}) modificados, creados o borrados
+     */
+    public void evictEvents(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        generation.incrementAndGet();
+        evict(CacheConfig.EVENT, ids);
+        catalogSnapshotService.invalidate();
+    }
+
+    /**
+     * Eventos resumidos ({@code EventSummary_db}) modificados, creados o borrados
+     */
+    public void evictSummaries(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        generation.incrementAndGet();
+        evict(CacheConfig.EVENT_SUMMARY, ids);
+        Cache list = cacheManager.getCache(CacheConfig.EVENT_SUMMARIES);
+        if (list != null) {
+            list.clear();
+        }
+    }
+
+    private void evict(String byIdCache, Collection<Long> ids) {
+        Cache byId = cacheManager.getCache(byIdCache);
+        if (byId != null) {
+            ids.forEach(byId::evict);
+        }
+        logger.debug("Cache {} invalidada para {} eventos", byIdCache, ids.size());
+    }
+}
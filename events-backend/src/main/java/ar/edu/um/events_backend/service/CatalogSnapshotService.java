@@ -0,0 +1,157 @@
+package ar.edu.um.events_backend.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ar.edu.um.events_backend.entity.Event_db;
+import ar.edu.um.events_backend.repository.Event_db_Repository;
+
+/**
+ * Catálogo completo de eventos ({@code GET /api/db/events}) ya serializado
+ *
+ * - Se guarda el JSON y su versión gzip, con un ETag fuerte por cada representación
+ *   (hash SHA-256 del JSON), así una petición solo copia bytes o compara un encabezado
+ * - Se construye en la primera petición y se descarta cuando una sincronización
+ *   escribe o borra eventos (ver {@link CatalogCacheEvictor}); la siguiente petición
+ *   lo vuelve a construir
+ * - Si llega una invalidación mientras se construye, el resultado se usa para esa
+ *   petición pero no se guarda
+ * - Una sola petición construye a la vez; las demás esperan el mismo resultado en un
+ *   {@link CompletableFuture} (sin monitor, para no fijar hilos virtuales durante la consulta)
+ */
+@Service
+public class CatalogSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogSnapshotService.class);
+
+    /**
+     * Catálogo serializado
+     *
+     * @param json JSON del listado de eventos
+     * @param gzip El mismo JSON comprimido con gzip
+     * @param etag ETag fuerte del JSON
+     * @param gzipEtag ETag fuerte de la versión gzip
+     */
+    public record Snapshot(byte[] json, byte[] gzip, String etag, String gzipEtag) {
+    }
+
+    private final Event_db_Repository repository;
+    private final ObjectMapper objectMapper;
+
+    private final AtomicReference<CompletableFuture<Snapshot>> building = new AtomicReference<>();
+    private final AtomicLong version = new AtomicLong();
+    private volatile Snapshot snapshot;
+    private volatile long builds;
+
+    public CatalogSnapshotService(Event_db_Repository repository, ObjectMapper objectMapper) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Catálogo vigente; lo construye si fue invalidado
+     */
+    public Snapshot getSnapshot() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        CompletableFuture<Snapshot> mine = new CompletableFuture<>();
+        CompletableFuture<Snapshot> inFlight = building.compareAndExchange(null, mine);
+        if (inFlight != null) {
+            return await(inFlight);
+        }
+        try {
+            current = snapshot;
+            if (current == null) {
+                long buildVersion = version.get();
+                current = build();
+                if (version.get() == buildVersion) {
+                    snapshot = current;
+                }
+            }
+            mine.complete(current);
+            return current;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            building.compareAndSet(mine, null);
+        }
+    }
+
+    private static Snapshot await(CompletableFuture<Snapshot> inFlight) {
+        try {
+            return inFlight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Descarta el catálogo serializado (se reconstruye en la próxima petición)
+     */
+    public void invalidate() {
+        version.incrementAndGet();
+        snapshot = null;
+    }
+
+    /**
+     * Tamaños y ETag del catálogo vigente
+     */
+    public Map<String, Object> getStats() {
+        Snapshot current = snapshot;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("built", current != null);
+        stats.put("etag", current != null ? current.etag() : null);
+        stats.put("jsonBytes", current != null ? current.json().length : 0);
+        stats.put("gzipBytes", current != null ? current.gzip().length : 0);
+        stats.put("builds", builds);
+        return stats;
+    }
+
+    private Snapshot build() {
+        try {
+            long start = System.currentTimeMillis();
+            List<Event_db> events = repository.findAll();
+            byte[] json = objectMapper.writeValueAsBytes(events);
+            byte[] gzip = gzip(json);
+
+            String hash = Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(MessageDigest.getInstance("SHA-256").digest(json));
+            builds++;
+            logger.info("Catálogo de eventos serializado: {} eventos, {} bytes ({} con gzip) en {} ms",
+                    events.size(), json.length, gzip.length, System.currentTimeMillis() - start);
+            return new Snapshot(json, gzip, "\"" + hash + "\"", "\"" + hash + "-gzip\"");
+        } catch (Exception e) {
+            throw new RuntimeException("Error al serializar el catálogo de eventos", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        }
+        return out.toByteArray();
+    }
+}
@@ -1,22 +1,33 @@
 package ar.edu.um.events_backend.service;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.cache.interceptor.SimpleKey;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.reactive.function.client.WebClient;
 
 import ar.edu.um.events_backend.auth.ExternalAuthService;
+import ar.edu.um.events_backend.config.CacheConfig;
+import ar.edu.um.events_backend.dto.Event_db_DTO;
 import ar.edu.um.events_backend.dto.Event_summary_db_DTO;
 import ar.edu.um.events_backend.entity.EventSummary_db;
 import ar.edu.um.events_backend.repository.EventSummary_db_Repository;
+import reactor.core.publisher.Flux;
 
 @Service
 public class EventSummary_db_Service {
@@ -27,34 +38,54 @@ public class EventSummary_db_Service {
     private final WebClient webClient;
     private final ExternalAuthService externalAuthService;
     private final Event_db_Service eventDbService;
+    private final TransactionTemplate transactionTemplate;
+    private final CatalogCacheEvictor cacheEvictor;
     
     @Value("${externalAuth.base-url}")
     private String externalBaseUrl;
+    
+    @Value("${sync.batch-size:500}")
+    private int batchSize;
 
     public EventSummary_db_Service(EventSummary_db_Repository repository,
                                     @Qualifier("externalApiClient") WebClient webClient,
                                     ExternalAuthService externalAuthService,
-                                    Event_db_Service eventDbService) {
+                                    Event_db_Service eventDbService,
+                                    PlatformTransactionManager transactionManager,
+                                    CatalogCacheEvictor cacheEvictor) {
         this.repository = repository;
         this.webClient = webClient;
         this.externalAuthService = externalAuthService;
         this.eventDbService = eventDbService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.cacheEvictor = cacheEvictor;
     }
 
+    /**
+     * Todos los eventos resumidos (desde la cache mientras no haya cambios)
+     */
+    @SuppressWarnings("unchecked")
     public List<EventSummary_db> findAll() {
-        return repository.findAll();
+        return cacheEvictor.get(CacheConfig.EVENT_SUMMARIES, SimpleKey.EMPTY, List.class, repository::findAll);
     }
 
+    /**
+     * Evento resumido (desde la cache mientras no haya cambios)
+     */
     public Optional<EventSummary_db> findById(Long id) {
-        return repository.findById(id);
+        return Optional.ofNullable(cacheEvictor.get(CacheConfig.EVENT_SUMMARY, id, EventSummary_db.class,
+                () -> repository.findById(id).orElse(null)));
     }
 
     public EventSummary_db save(EventSummary_db event) {
-        return repository.save(event);
+        EventSummary_db saved = repository.save(event);
+        cacheEvictor.evictSummaries(List.of(saved.getId()));
+        return saved;
     }
 
     public void deleteById(Long id) {
         repository.deleteById(id);
+        cacheEvictor.evictSummaries(List.of(id));
     }
     
     /**
@@ -73,52 +104,82 @@ public class EventSummary_db_Service {
         logger.info("Sincronización completa de eventos finalizada");
     }
     
+    /**
+     * Sincroniza solo los eventos indicados (resumidos y completos)
+     * 
+     * Se consulta el detalle de cada evento en el servicio externo y de él se
+     * derivan ambas tablas, sin descargar los catálogos completos. Los eventos
+     * resumidos que no cambiaron no se escriben ni se invalidan en la cache.
+     * 
+     * @param eventIds IDs de los eventos afectados
+     */
+    public void syncEventsFromExternal(Collection<Long> eventIds) {
+        logger.info("Iniciando sincronización de eventos {} desde servicio externo", eventIds);
+        
+        for (Long id : eventIds) {
+            Optional<Event_db_DTO> external = eventDbService.syncEventFromExternal(id);
+            
+            if (external.isPresent()) {
+                EventSummary_db entity = mapFullDtoToEntity(external.get());
+                Optional<EventSummary_db> local = repository.findById(id);
+                if (local.isPresent() && sameContent(entity, local.get())) {
+                    logger.debug("Evento sin cambios: ID={}", id);
+                    continue;
+                }
+                repository.save(entity);
+                cacheEvictor.evictSummaries(List.of(id));
+                logger.debug("Evento sincronizado: ID={}, Titulo={}", entity.getId(), entity.getTitulo());
+            } else if (repository.existsById(id)) {
+                repository.deleteById(id);
+                cacheEvictor.evictSummaries(List.of(id));
+                logger.info("Evento eliminado (ya no existe en servicio externo): ID={}", id);
+            }
+        }
+        
+        logger.info("Sincronización de eventos {} finalizada", eventIds);
+    }
+    
     /**
      * Sincroniza solo los eventos resumidos
+     * 
+     * La respuesta se procesa en streaming y se escribe en lotes de
+     * {@code sync.batch-size} (una transacción por lote); al final se borran
+     * los eventos que ya no existen en el servicio externo.
+     * Tras el commit de cada lote se invalidan en la cache solo los eventos escritos o borrados.
      */
     private void syncEventsSummary() {
         logger.info("Iniciando sincronización de eventos resumidos desde servicio externo");
         
         try {
             // Llamar al servicio externo
-            List<Event_summary_db_DTO> externalEvents = webClient.get()
+            Flux<Event_summary_db_DTO> externalEvents = webClient.get()
                     .uri(externalBaseUrl + "/api/endpoints/v1/eventos-resumidos")
                     .header("Authorization", "Bearer " + externalAuthService.getToken())
                     .retrieve()
-                    .bodyToMono(new ParameterizedTypeReference<List<Event_summary_db_DTO>>() {})
-                    .block();
+                    .bodyToFlux(Event_summary_db_DTO.class);
             
-            if (externalEvents == null || externalEvents.isEmpty()) {
+            Set<Long> externalIds = new HashSet<>();
+            int written = 0;
+            for (List<Event_summary_db_DTO> batch : externalEvents.buffer(batchSize).toIterable(2)) {
+                List<Long> writtenIds = transactionTemplate.execute(status -> applySummaryBatch(batch));
+                if (writtenIds != null) {
+                    written += writtenIds.size();
+                    cacheEvictor.evictSummaries(writtenIds);
+                }
+                batch.forEach(dto -> externalIds.add(dto.getId()));
+            }
+            
+            if (externalIds.isEmpty()) {
                 logger.warn("No se recibieron eventos del servicio externo");
                 return;
             }
             
-            logger.info("Recibidos {} eventos del servicio externo", externalEvents.size());
-            
-            // 1. Obtener IDs de eventos externos
-            Set<Long> externalIds = externalEvents.stream()
-                    .map(Event_summary_db_DTO::getId)
-                    .collect(Collectors.toSet());
+            logger.info("Eventos resumidos sincronizados: {} recibidos, {} escritos, {} sin cambios",
+                    externalIds.size(), written, externalIds.size() - written);
             
-            // 2. Borrar eventos locales que ya no existen en el externo
-            List<EventSummary_db> localEvents = repository.findAll();
-            int deletedCount = 0;
-            for (EventSummary_db local : localEvents) {
-                if (!externalIds.contains(local.getId())) {
-                    repository.deleteById(local.getId());
-                    deletedCount++;
-                    logger.debug("Evento eliminado (ya no existe en servicio externo): ID={}", local.getId());
-                }
-            }
-            if (deletedCount > 0) {
-                logger.info("Eliminados {} eventos que ya no existen en el servicio externo", deletedCount);
-            }
-            
-            // 3. Insertar/actualizar todos los eventos del servicio externo
-            for (Event_summary_db_DTO dto : externalEvents) {
-                EventSummary_db entity = mapDtoToEntity(dto);
-                repository.save(entity);
-                logger.debug("Evento sincronizado: ID={}, Titulo={}", entity.getId(), entity.getTitulo());
+            List<Long> staleIds = transactionTemplate.execute(status -> deleteStaleSummaries(externalIds));
+            if (staleIds != null) {
+                cacheEvictor.evictSummaries(staleIds);
             }
             
             logger.info("Sincronización de eventos resumidos completada exitosamente");
@@ -129,10 +190,107 @@ public class EventSummary_db_Service {
         }
     }
     
+    /**
+     * Aplica un lote de eventos externos sobre la base local:
+     * - Un SELECT para cargar los eventos locales del lote
+     * - UPDATE en lote solo de los que cambiaron (dirty checking) e INSERT en lote de los nuevos
+     * 
+     * @return IDs de los eventos nuevos o modificados
+     */
+    private List<Long> applySummaryBatch(List<Event_summary_db_DTO> batch) {
+        List<Long> batchIds = batch.stream().map(Event_summary_db_DTO::getId).collect(Collectors.toList());
+        Map<Long, EventSummary_db> localById = repository.findAllById(batchIds).stream()
+                .collect(Collectors.toMap(EventSummary_db::getId, Function.identity()));
+        
+        List<EventSummary_db> newEvents = new ArrayList<>();
+        List<Long> written = new ArrayList<>();
+        for (Event_summary_db_DTO dto : batch) {
+            EventSummary_db entity = localById.get(dto.getId());
+            if (entity == null) {
+                newEvents.add(mapDtoToEntity(dto));
+                written.add(dto.getId());
+            } else if (!sameContent(dto, entity)) {
+                copyDtoToEntity(dto, entity);
+                written.add(dto.getId());
+            }
+        }
+        repository.persistAll(newEvents);
+        return written;
+    }
+    
+    /**
+     * Si la entidad local ya tiene los mismos datos que el evento externo
+     */
+    private boolean sameContent(Event_summary_db_DTO dto, EventSummary_db entity) {
+        return sameContent(mapDtoToEntity(dto), entity);
+    }
+    
+    /**
+     * Si la entidad local ya tiene los mismos datos que la derivada del evento externo
+     */
+    private boolean sameContent(EventSummary_db external, EventSummary_db entity) {
+        return Objects.equals(external.getTitulo(), entity.getTitulo())
+                && Objects.equals(external.getResumen(), entity.getResumen())
+                && Objects.equals(external.getDescripcion(), entity.getDescripcion())
+                && (external.getFecha() == null ? entity.getFecha() == null
+                        : entity.getFecha() != null && external.getFecha().isEqual(entity.getFecha()))
+                && (external.getPrecioEntrada() == null ? entity.getPrecioEntrada() == null
+                        : entity.getPrecioEntrada() != null && external.getPrecioEntrada().compareTo(entity.getPrecioEntrada()) == 0)
+                && Objects.equals(external.getEventoTipoNombre(), entity.getEventoTipoNombre())
+                && Objects.equals(external.getEventoTipoDescripcion(), entity.getEventoTipoDescripcion());
+    }
+    
+    /**
+     * Borra (en lotes) los eventos resumidos que ya no existen en el servicio externo
+     * 
+     * @return IDs de los eventos borrados
+     */
+    private List<Long> deleteStaleSummaries(Set<Long> externalIds) {
+        List<Long> staleIds = repository.findAllIds().stream()
+                .filter(id -> !externalIds.contains(id))
+                .collect(Collectors.toList());
+        for (int i = 0; i < staleIds.size(); i += batchSize) {
+            repository.deleteAllByIdInBatch(staleIds.subList(i, Math.min(i + batchSize, staleIds.size())));
+        }
+        if (!staleIds.isEmpty()) {
+            logger.info("Eliminados {} eventos que ya no existen en el servicio externo", staleIds.size());
+        }
+        return staleIds;
+    }
+    
     /**
      * Mapea un EventDTO del servicio externo a la entidad EventSummary_db
      */
     private EventSummary_db mapDtoToEntity(Event_summary_db_DTO dto) {
+        EventSummary_db entity = new EventSummary_db();
+        copyDtoToEntity(dto, entity);
+        return entity;
+    }
+    
+    /**
+     * Copia los datos de un EventDTO sobre una entidad EventSummary_db (nueva o existente)
+     */
+    private void copyDtoToEntity(Event_summary_db_DTO dto, EventSummary_db entity) {
+        entity.setId(dto.getId());
+        entity.setTitulo(dto.getTitulo());
+        entity.setResumen(dto.getResumen());
+        entity.setDescripcion(dto.getDescripcion());
+        entity.setFecha(dto.getFecha());
+        entity.setPrecioEntrada(dto.getPrecioEntrada());
+        
+        if (dto.getEventoTipo() != null) {
+            entity.setEventoTipoNombre(dto.getEventoTipo().getNombre());
+            entity.setEventoTipoDescripcion(dto.getEventoTipo().getDescripcion());
+        } else {
+            entity.setEventoTipoNombre(null);
+            entity.setEventoTipoDescripcion(null);
+        }
+    }
+    
+    /**
+     * Mapea el evento completo del servicio externo a la entidad EventSummary_db
+     */
+    private EventSummary_db mapFullDtoToEntity(Event_db_DTO dto) {
         EventSummary_db entity = new EventSummary_db();
         entity.setId(dto.getId());
         entity.setTitulo(dto.getTitulo());
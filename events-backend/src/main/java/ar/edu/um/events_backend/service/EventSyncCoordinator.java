@@ -0,0 +1,169 @@
+package ar.edu.um.events_backend.service;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Coordina las sincronizaciones de eventos disparadas por notificaciones de Kafka
+ *
+ * - Las notificaciones que llegan dentro de la ventana configurada
+ *   ({@code sync.events.debounce-ms}) se agrupan en una sola ejecución
+ * - Si alguna notificación no indica eventos, la ejecución es una sincronización completa
+ * - Las sincronizaciones corren en un único hilo: nunca hay dos en paralelo
+ * - Quien notifica no espera a que termine la sincronización
+ */
+@Service
+public class EventSyncCoordinator {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventSyncCoordinator.class);
+
+    private final EventSummary_db_Service eventSummaryService;
+    private final long debounceMillis;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "event-sync");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Object lock = new Object();
+
+    // Estado pendiente (protegido por lock)
+    private final Set<Long> pendingIds = new LinkedHashSet<>();
+    private boolean pendingFull;
+    private boolean scheduled;
+    private int pendingNotifications;
+
+    // Estado de la última ejecución
+    private volatile String lastMode;
+    private volatile String lastStatus = "NEVER_RUN";
+    private volatile String lastError;
+    private volatile Instant lastStartedAt;
+    private volatile Instant lastFinishedAt;
+    private volatile long lastDurationMs;
+    private volatile int lastNotifications;
+    private volatile boolean running;
+    private long totalRuns;
+    private long totalNotifications;
+
+    public EventSyncCoordinator(EventSummary_db_Service eventSummaryService,
+                                @Value("${sync.events.debounce-ms:2000}") long debounceMillis) {
+        this.eventSummaryService = eventSummaryService;
+        this.debounceMillis = debounceMillis;
+    }
+
+    /**
+     * Registra una notificación de cambios
+     *
+     * @param eventIds Eventos afectados; vacío si hay que sincronizar todo
+     */
+    public void submit(Set<Long> eventIds) {
+        synchronized (lock) {
+            if (eventIds.isEmpty()) {
+                pendingFull = true;
+            } else {
+                pendingIds.addAll(eventIds);
+            }
+            pendingNotifications++;
+            totalNotifications++;
+
+            if (!scheduled) {
+                scheduled = true;
+                executor.schedule(this::runPending, debounceMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Ejecuta en el hilo de sincronización todo lo acumulado hasta el momento
+     */
+    private void runPending() {
+        Set<Long> ids;
+        boolean full;
+        int notifications;
+        synchronized (lock) {
+            ids = new LinkedHashSet<>(pendingIds);
+            full = pendingFull;
+            notifications = pendingNotifications;
+            pendingIds.clear();
+            pendingFull = false;
+            pendingNotifications = 0;
+            scheduled = false;
+            totalRuns++;
+        }
+
+        running = true;
+        lastStartedAt = Instant.now();
+        lastNotifications = notifications;
+        long start = System.currentTimeMillis();
+        try {
+            if (!full) {
+                lastMode = "EVENTS " + ids;
+                try {
+                    eventSummaryService.syncEventsFromExternal(ids);
+                } catch (Exception e) {
+                    logger.warn("Falló la sincronización puntual de eventos {}, se hará sincronización completa: {}",
+                            ids, e.getMessage());
+                    full = true;
+                }
+            }
+            if (full) {
+                lastMode = "FULL";
+                eventSummaryService.syncAllEventsFromExternal();
+            }
+            lastStatus = "SUCCESS";
+            lastError = null;
+        } catch (Exception e) {
+            logger.error("Error al procesar sincronización de eventos: {}", e.getMessage(), e);
+            lastStatus = "FAILED";
+            lastError = e.getMessage();
+        } finally {
+            lastDurationMs = System.currentTimeMillis() - start;
+            lastFinishedAt = Instant.now();
+            running = false;
+            logger.info("Sincronización {} finalizada en {} ms ({} notificaciones agrupadas)",
+                    lastMode, lastDurationMs, notifications);
+        }
+    }
+
+    /**
+     * Estado de la última sincronización y de las notificaciones pendientes
+     */
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        synchronized (lock) {
+            status.put("pendingFull", pendingFull);
+            status.put("pendingEventIds", new LinkedHashSet<>(pendingIds));
+            status.put("pendingNotifications", pendingNotifications);
+            status.put("totalNotifications", totalNotifications);
+            status.put("totalRuns", totalRuns);
+        }
+        status.put("running", running);
+        status.put("lastMode", lastMode);
+        status.put("lastStatus", lastStatus);
+        status.put("lastError", lastError);
+        status.put("lastStartedAt", lastStartedAt);
+        status.put("lastFinishedAt", lastFinishedAt);
+        status.put("lastDurationMs", lastDurationMs);
+        status.put("lastNotifications", lastNotifications);
+        status.put("debounceMs", debounceMillis);
+        return status;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,78 @@
+package ar.edu.um.events_backend.service;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Extrae los IDs de evento de un mensaje del topic "eventos-actualizacion"
+ *
+ * Formatos aceptados:
+ * - Número o texto numérico: {@code 3}
+ * - Objeto con {@code eventoId}, {@code id} o {@code eventoIds}: {@code {"eventoId": 3}}
+ * - Arreglo de cualquiera de los anteriores
+ *
+ * Si el mensaje no se puede interpretar, o alguna de sus partes no tiene uno de estos
+ * formatos (otro objeto, un booleano, un número no entero, ...), se devuelve un
+ * conjunto vacío y el llamador debe hacer una sincronización completa.
+ *
+ * events-proxy tiene una copia de esta clase (los dos servicios no comparten código).
+ * El contrato común es {@code EventUpdateMessageParserTest}, igual en ambos módulos:
+ * un cambio de formato se aplica en las dos copias y en los dos tests.
+ */
+@Component
+public class EventUpdateMessageParser {
+
+    private final ObjectMapper objectMapper;
+
+    public EventUpdateMessageParser(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public Set<Long> parseEventIds(String message) {
+        Set<Long> ids = new LinkedHashSet<>();
+        if (message == null || message.isBlank()) {
+            return ids;
+        }
+        try {
+            collect(objectMapper.readTree(message), ids);
+        } catch (Exception e) {
+            ids.clear();
+        }
+        return ids;
+    }
+
+    /**
+     * Agrega los IDs del nodo; cualquier parte no reconocida aborta todo el mensaje
+     */
+    private void collect(JsonNode node, Set<Long> ids) {
+        if (node == null) {
+            throw new IllegalArgumentException("Falta el ID de evento");
+        }
+        if (node.isArray()) {
+            for (JsonNode item : node) {
+                collect(item, ids);
+            }
+        } else if (node.isObject()) {
+            if (node.has("eventoIds")) {
+                collect(node.get("eventoIds"), ids);
+            } else if (node.has("eventoId")) {
+                collect(node.get("eventoId"), ids);
+            } else if (node.has("id")) {
+                collect(node.get("id"), ids);
+            } else {
+                throw new IllegalArgumentException("Objeto sin ID de evento: " + node);
+            }
+        } else if (node.isIntegralNumber() && node.canConvertToLong()) {
+            ids.add(node.asLong());
+        } else if (node.isTextual() && node.asText().trim().matches("\\d+")) {
+            ids.add(Long.parseLong(node.asText().trim()));
+        } else {
+            throw new IllegalArgumentException("ID de evento no reconocido: " + node);
+        }
+    }
+}
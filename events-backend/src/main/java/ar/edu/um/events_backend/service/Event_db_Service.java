@@ -1,6 +1,14 @@
 package ar.edu.um.events_backend.service;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -9,14 +17,21 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import ar.edu.um.events_backend.auth.ExternalAuthService;
+import ar.edu.um.events_backend.config.CacheConfig;
 import ar.edu.um.events_backend.dto.Event_db_DTO;
 import ar.edu.um.events_backend.entity.Event_db;
 import ar.edu.um.events_backend.repository.Event_db_Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 @Service
 public class Event_db_Service {
@@ -26,80 +41,127 @@ public class Event_db_Service {
     private final Event_db_Repository repository;
     private final WebClient webClient;
     private final ExternalAuthService externalAuthService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final CatalogCacheEvictor cacheEvictor;
     
     @Value("${externalAuth.base-url}")
     private String externalBaseUrl;
+    
+    @Value("${sync.batch-size:500}")
+    private int batchSize;
 
     public Event_db_Service(Event_db_Repository repository,
                             @Qualifier("externalApiClient") WebClient webClient,
-                            ExternalAuthService externalAuthService) {
+                            ExternalAuthService externalAuthService,
+                            ObjectMapper objectMapper,
+                            PlatformTransactionManager transactionManager,
+                            CatalogCacheEvictor cacheEvictor) {
         this.repository = repository;
         this.webClient = webClient;
         this.externalAuthService = externalAuthService;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.cacheEvictor = cacheEvictor;
     }
 
+    /**
+     * Todos los eventos con sus integrantes
+     *
+     * El listado de {@code GET /api/db/events} se sirve ya serializado desde {@link CatalogSnapshotService}.
+     */
     public List<Event_db> findAll() {
         return repository.findAll();
     }
 
+    /**
+     * Evento con sus integrantes (desde la cache mientras no haya cambios)
+     */
     public Optional<Event_db> findById(Long id) {
-        return repository.findById(id);
+        return Optional.ofNullable(cacheEvictor.get(CacheConfig.EVENT, id, Event_db.class,
+                () -> repository.findById(id).orElse(null)));
     }
 
+    /**
+     * Guarda un cambio local del evento
+     *
+     * Se borra el hash del contenido externo: la fila ya no coincide con el servicio externo
+     * y la próxima sincronización la vuelve a escribir.
+     */
     public Event_db save(Event_db event) {
-        return repository.save(event);
+        event.setContentHash(null);
+        Event_db saved = repository.save(event);
+        cacheEvictor.evictEvents(List.of(saved.getId()));
+        return saved;
     }
 
     public void deleteById(Long id) {
         repository.deleteById(id);
+        cacheEvictor.evictEvents(List.of(id));
+    }
+    
+    /**
+     * Capacidad (filaAsientos * columnAsientos) de cada evento, sin cargar las entidades
+     * 
+     * @param ids IDs de los eventos
+     * @return Capacidad por ID; los eventos inexistentes o sin dimensiones no se incluyen
+     */
+    public Map<Long, Integer> findCapacityByIds(Collection<Long> ids) {
+        Map<Long, Integer> capacity = new HashMap<>();
+        for (Object[] row : repository.findSeatLayoutByIdIn(ids)) {
+            Integer filas = (Integer) row[1];
+            Integer columnas = (Integer) row[2];
+            if (filas != null && columnas != null) {
+                capacity.put((Long) row[0], filas * columnas);
+            }
+        }
+        return capacity;
     }
     
     /**
      * Sincroniza todos los eventos completos desde el servicio externo
+     * 
+     * Sincronización por diferencias: se compara el hash del contenido de cada evento
+     * externo con el guardado localmente y solo se escriben los eventos nuevos o
+     * modificados. La respuesta se procesa en streaming: los eventos se decodifican
+     * uno a uno y se escriben en lotes de {@code sync.batch-size} (una transacción por lote),
+     * por lo que la memoria usada no depende del tamaño del catálogo.
+     * Al final se borran los eventos que ya no existen en el servicio externo.
+     * Tras el commit de cada lote se invalidan en la cache solo los eventos escritos o borrados.
      */
     public void syncAllFullEventsFromExternal() {
         logger.info("Iniciando sincronización de eventos completos desde servicio externo");
         
         try {
             // Llamar al servicio externo
-            List<Event_db_DTO> externalEvents = webClient.get()
+            Flux<Event_db_DTO> externalEvents = webClient.get()
                     .uri(externalBaseUrl + "/api/endpoints/v1/eventos")
                     .header("Authorization", "Bearer " + externalAuthService.getToken())
                     .retrieve()
-                    .bodyToMono(new ParameterizedTypeReference<List<Event_db_DTO>>() {})
-                    .block();
+                    .bodyToFlux(Event_db_DTO.class);
+            
+            Set<Long> externalIds = new HashSet<>();
+            int written = 0;
+            for (List<Event_db_DTO> batch : externalEvents.buffer(batchSize).toIterable(2)) {
+                List<Long> writtenIds = transactionTemplate.execute(status -> applyFullEventBatch(batch));
+                if (writtenIds != null) {
+                    written += writtenIds.size();
+                    cacheEvictor.evictEvents(writtenIds);
+                }
+                batch.forEach(dto -> externalIds.add(dto.getId()));
+            }
             
-            if (externalEvents == null || externalEvents.isEmpty()) {
+            if (externalIds.isEmpty()) {
                 logger.warn("No se recibieron eventos completos del servicio externo");
                 return;
             }
             
-            logger.info("Recibidos {} eventos completos del servicio externo", externalEvents.size());
-            
-            // 1. Obtener IDs de eventos externos
-            Set<Long> externalIds = externalEvents.stream()
-                    .map(Event_db_DTO::getId)
-                    .collect(Collectors.toSet());
+            logger.info("Recibidos {} eventos completos del servicio externo ({} escritos, {} sin cambios)",
+                    externalIds.size(), written, externalIds.size() - written);
             
-            // 2. Borrar eventos locales que ya no existen en el externo
-            List<Event_db> localEvents = repository.findAll();
-            int deletedCount = 0;
-            for (Event_db local : localEvents) {
-                if (!externalIds.contains(local.getId())) {
-                    repository.deleteById(local.getId());
-                    deletedCount++;
-                    logger.debug("Evento completo eliminado (ya no existe en servicio externo): ID={}", local.getId());
-                }
-            }
-            if (deletedCount > 0) {
-                logger.info("Eliminados {} eventos completos que ya no existen en el servicio externo", deletedCount);
-            }
-            
-            // 3. Insertar/actualizar todos los eventos del servicio externo
-            for (Event_db_DTO dto : externalEvents) {
-                Event_db entity = mapFullDtoToEntity(dto);
-                repository.save(entity);
-                logger.debug("Evento completo sincronizado: ID={}, Titulo={}", entity.getId(), entity.getTitulo());
+            List<Long> staleIds = transactionTemplate.execute(status -> deleteStaleEvents(externalIds));
+            if (staleIds != null) {
+                cacheEvictor.evictEvents(staleIds);
             }
             
             logger.info("Sincronización de eventos completos completada exitosamente");
@@ -110,11 +172,169 @@ public class Event_db_Service {
         }
     }
     
+    /**
+     * Sincroniza un único evento completo desde el servicio externo
+     * 
+     * Si el evento ya no existe en el servicio externo se borra localmente.
+     * 
+     * @param id ID del evento
+     * @return Datos externos del evento, o vacío si ya no existe
+     */
+    public Optional<Event_db_DTO> syncEventFromExternal(Long id) {
+        logger.info("Sincronizando evento completo ID={} desde servicio externo", id);
+        
+        try {
+            Event_db_DTO dto = webClient.get()
+                    .uri(externalBaseUrl + "/api/endpoints/v1/evento/{id}", id)
+                    .header("Authorization", "Bearer " + externalAuthService.getToken())
+                    .retrieve()
+                    .bodyToMono(Event_db_DTO.class)
+                    .onErrorResume(WebClientResponseException.NotFound.class, e -> Mono.empty())
+                    .block();
+            
+            Boolean changed = transactionTemplate.execute(status -> {
+                if (dto == null) {
+                    if (repository.existsById(id)) {
+                        repository.deleteById(id);
+                        logger.info("Evento completo eliminado (ya no existe en servicio externo): ID={}", id);
+                        return true;
+                    }
+                    return false;
+                }
+                return applyFullEventChange(dto);
+            });
+            if (Boolean.TRUE.equals(changed)) {
+                cacheEvictor.evictEvents(List.of(id));
+            }
+            
+            return Optional.ofNullable(dto);
+            
+        } catch (Exception e) {
+            logger.error("Error al sincronizar evento completo ID={} desde servicio externo", id, e);
+            throw new RuntimeException("Error en sincronización del evento " + id, e);
+        }
+    }
+    
+    /**
+     * Inserta o actualiza un evento solo si su contenido cambió
+     * 
+     * @return true si se escribió el evento
+     */
+    private boolean applyFullEventChange(Event_db_DTO dto) {
+        String hash = contentHash(dto);
+        Event_db entity = repository.findById(dto.getId()).orElse(null);
+        if (entity != null && hash.equals(entity.getContentHash())) {
+            logger.debug("Evento completo sin cambios: ID={}", dto.getId());
+            return false;
+        }
+        if (entity == null) {
+            entity = new Event_db();
+        }
+        copyDtoToEntity(dto, entity);
+        entity.setContentHash(hash);
+        repository.save(entity);
+        logger.info("Evento completo sincronizado: ID={}, Titulo={}", entity.getId(), entity.getTitulo());
+        return true;
+    }
+    
+    /**
+     * Aplica un lote de eventos externos escribiendo solo los nuevos o modificados
+     * 
+     * @return IDs de los eventos escritos
+     */
+    private List<Long> applyFullEventBatch(List<Event_db_DTO> batch) {
+        // 1. Hashes locales de los eventos del lote (sin cargar entidades)
+        Map<Long, String> localHashes = new HashMap<>();
+        List<Long> batchIds = batch.stream().map(Event_db_DTO::getId).collect(Collectors.toList());
+        for (Object[] row : repository.findIdAndContentHashByIdIn(batchIds)) {
+            localHashes.put((Long) row[0], (String) row[1]);
+        }
+        
+        // 2. Detectar eventos nuevos o modificados comparando el hash del contenido
+        Map<Long, Event_db_DTO> changed = new HashMap<>();
+        Map<Long, String> changedHashes = new HashMap<>();
+        for (Event_db_DTO dto : batch) {
+            String hash = contentHash(dto);
+            if (!hash.equals(localHashes.get(dto.getId()))) {
+                changed.put(dto.getId(), dto);
+                changedHashes.put(dto.getId(), hash);
+            }
+        }
+        
+        if (changed.isEmpty()) {
+            return List.of();
+        }
+        List<Long> written = new ArrayList<>(changed.keySet());
+        
+        // 3. Actualizar en el lugar los existentes (un solo SELECT, UPDATE en lote al hacer commit)
+        List<Long> existingIds = changed.keySet().stream()
+                .filter(localHashes::containsKey)
+                .collect(Collectors.toList());
+        if (!existingIds.isEmpty()) {
+            for (Event_db entity : repository.findAllById(existingIds)) {
+                copyDtoToEntity(changed.remove(entity.getId()), entity);
+                entity.setContentHash(changedHashes.get(entity.getId()));
+            }
+        }
+        
+        // 4. Insertar en lote los nuevos (persist directo, sin SELECT previo)
+        List<Event_db> newEvents = new ArrayList<>();
+        for (Event_db_DTO dto : changed.values()) {
+            Event_db entity = mapFullDtoToEntity(dto);
+            entity.setContentHash(changedHashes.get(dto.getId()));
+            newEvents.add(entity);
+        }
+        repository.persistAll(newEvents);
+        
+        return written;
+    }
+    
+    /**
+     * Borra (en lotes) los eventos locales que ya no existen en el servicio externo
+     * 
+     * @return IDs de los eventos borrados
+     */
+    private List<Long> deleteStaleEvents(Set<Long> externalIds) {
+        List<Long> staleIds = repository.findAllIds().stream()
+                .filter(id -> !externalIds.contains(id))
+                .collect(Collectors.toList());
+        for (int i = 0; i < staleIds.size(); i += batchSize) {
+            List<Long> chunk = staleIds.subList(i, Math.min(i + batchSize, staleIds.size()));
+            repository.deleteIntegrantesByEventIds(chunk);
+            repository.deleteAllByIdInBatch(chunk);
+        }
+        if (!staleIds.isEmpty()) {
+            logger.info("Eliminados {} eventos completos que ya no existen en el servicio externo", staleIds.size());
+        }
+        return staleIds;
+    }
+    
+    /**
+     * Hash SHA-256 del contenido de un evento externo (serializado a JSON)
+     */
+    private String contentHash(Event_db_DTO dto) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] json = objectMapper.writeValueAsString(dto).getBytes(StandardCharsets.UTF_8);
+            return HexFormat.of().formatHex(digest.digest(json));
+        } catch (Exception e) {
+            throw new IllegalStateException("No se pudo calcular el hash del evento " + dto.getId(), e);
+        }
+    }
+    
     /**
      * Mapea un EventFullDTO del servicio externo a la entidad Event_db
      */
     private Event_db mapFullDtoToEntity(Event_db_DTO dto) {
         Event_db entity = new Event_db();
+        copyDtoToEntity(dto, entity);
+        return entity;
+    }
+    
+    /**
+     * Copia los datos de un EventFullDTO sobre una entidad Event_db (nueva o existente)
+     */
+    private void copyDtoToEntity(Event_db_DTO dto, Event_db entity) {
         entity.setId(dto.getId());
         entity.setTitulo(dto.getTitulo());
         entity.setResumen(dto.getResumen());
@@ -129,9 +349,13 @@ public class Event_db_Service {
         if (dto.getEventoTipo() != null) {
             entity.setEventoTipoNombre(dto.getEventoTipo().getNombre());
             entity.setEventoTipoDescripcion(dto.getEventoTipo().getDescripcion());
+        } else {
+            entity.setEventoTipoNombre(null);
+            entity.setEventoTipoDescripcion(null);
         }
         
-        // Mapear integrantes
+        // Mapear integrantes (se reemplaza el contenido de la colección existente)
+        entity.getIntegrantes().clear();
         if (dto.getIntegrantes() != null) {
             List<Event_db.Integrante> integrantes = dto.getIntegrantes().stream()
                     .map(integranteDTO -> {
@@ -142,9 +366,7 @@ public class Event_db_Service {
                         return integrante;
                     })
                     .collect(Collectors.toList());
-            entity.setIntegrantes(integrantes);
+            entity.getIntegrantes().addAll(integrantes);
         }
-        
-        return entity;
     }
 }
@@ -1,13 +1,28 @@
 package ar.edu.um.events_backend.service;
 
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
 @Service
 public class RedisService {
     
@@ -15,54 +30,126 @@ public class RedisService {
     
     private final WebClient proxyClient;
     private final ObjectMapper objectMapper;
+    private final Duration seatsTtl;
+    
+    // Consulta compartida de asientos por evento (ver getSeatsForEvent)
+    private final Map<Long, Mono<String>> sharedSeats = new ConcurrentHashMap<>();
+    private final AtomicLong seatsRequests = new AtomicLong();
+    private final AtomicLong seatsProxyCalls = new AtomicLong();
     
-    public RedisService(@Qualifier("proxyClient") WebClient proxyClient, ObjectMapper objectMapper) {
+    public RedisService(@Qualifier("proxyClient") WebClient proxyClient,
+                        ObjectMapper objectMapper,
+                        @Value("${seats.single-flight.ttl-ms:250}") long seatsTtlMillis) {
         this.proxyClient = proxyClient;
         this.objectMapper = objectMapper;
+        this.seatsTtl = Duration.ofMillis(seatsTtlMillis);
     }
     
     /**
      * Obtiene los asientos de un evento desde Redis a través del proxy
+     * 
+     * Las consultas simultáneas del mismo evento comparten una única llamada al proxy
+     * y su resultado, que además se reutiliza durante {@code seats.single-flight.ttl-ms}
+     * (también si el evento no existe). Los errores no se reutilizan: el siguiente
+     * pedido vuelve a consultar al proxy. Cada consulta se quita del mapa cuando su
+     * resultado vence, así solo se guardan los eventos consultados recientemente.
      * @param eventId ID del evento
-     * @return JSON con los asientos
+     * @return JSON con los asientos, o vacío si el evento no existe en Redis
      */
-    public String getSeatsForEvent(Long eventId) {
-        logger.info("Solicitando asientos del evento {} al proxy", eventId);
-        
-        try {
-            String response = proxyClient
+    public Mono<String> getSeatsForEvent(Long eventId) {
+        seatsRequests.incrementAndGet();
+        return sharedSeats.computeIfAbsent(eventId, this::sharedFetch);
+    }
+    
+    /**
+     * Consulta compartida de un evento; se quita del mapa al vencer su resultado (o enseguida si falla)
+     */
+    private Mono<String> sharedFetch(Long eventId) {
+        AtomicReference<Mono<String>> shared = new AtomicReference<>();
+        shared.set(fetchSeatsForEvent(eventId)
+            .doFinally(signal -> {
+                if (signal == SignalType.ON_ERROR) {
+                    sharedSeats.remove(eventId, shared.get());
+                } else {
+                    Mono.delay(seatsTtl).subscribe(tick -> sharedSeats.remove(eventId, shared.get()));
+                }
+            })
+            .cache(json -> seatsTtl, error -> Duration.ZERO, () -> seatsTtl));
+        return shared.get();
+    }
+    
+    /**
+     * Contadores de la consulta compartida de asientos
+     */
+    public Map<String, Object> getSeatsStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("events", sharedSeats.size());
+        stats.put("requests", seatsRequests.get());
+        stats.put("proxyCalls", seatsProxyCalls.get());
+        stats.put("ttlMs", seatsTtl.toMillis());
+        return stats;
+    }
+    
+    private Mono<String> fetchSeatsForEvent(Long eventId) {
+        return Mono.defer(() -> {
+            seatsProxyCalls.incrementAndGet();
+            logger.info("Solicitando asientos del evento {} al proxy", eventId);
+            return proxyClient
                 .get()
                 .uri("/proxy/redis/seats/{eventId}", eventId)
                 .retrieve()
                 .bodyToMono(String.class)
-                .block();
-            
-            logger.info("Asientos recibidos del proxy para evento {}", eventId);
-            return response;
-            
-        } catch (Exception e) {
-            logger.error("Error al obtener asientos del evento {} desde el proxy: {}", eventId, e.getMessage());
-            throw new RuntimeException("Error al consultar asientos del evento", e);
-        }
+                .onErrorResume(WebClientResponseException.NotFound.class, e -> Mono.empty())
+                .doOnNext(response -> logger.info("Asientos recibidos del proxy para evento {}", eventId))
+                .onErrorMap(e -> {
+                    logger.error("Error al obtener asientos del evento {} desde el proxy: {}", eventId, e.getMessage());
+                    return new RuntimeException("Error al consultar asientos del evento", e);
+                });
+        });
     }
     
     /**
      * Obtiene un asiento específico de un evento
+     * 
+     * El proxy busca el asiento en su índice por fila/columna y devuelve solo ese
+     * asiento (estado y expiración), no el mapa completo.
      * @param eventId ID del evento
      * @param row Fila del asiento
      * @param col Columna del asiento
-     * @return JSON con el asiento específico
+     * @return JSON con el asiento específico, o vacío si el evento no existe en Redis
      */
-    public String getSeatDetail(Long eventId, int row, int col) {
+    public Mono<String> getSeatDetail(Long eventId, int row, int col) {
         logger.info("Solicitando asiento [{},{}] del evento {} al proxy", row, col, eventId);
         
-        try {
-            // Devolver la misma respuesta que getSeatsForEvent sin mapear
-            return getSeatsForEvent(eventId);
-            
-        } catch (Exception e) {
-            logger.error("Error al obtener asiento [{},{}] del evento {}: {}", row, col, eventId, e.getMessage());
-            throw new RuntimeException("Error al consultar asiento específico", e);
-        }
+        return proxyClient
+            .get()
+            .uri("/proxy/redis/seats/{eventId}/{row}/{col}", eventId, row, col)
+            .retrieve()
+            .bodyToMono(String.class)
+            .onErrorResume(WebClientResponseException.NotFound.class, e -> Mono.empty())
+            .onErrorMap(e -> {
+                logger.error("Error al obtener asiento [{},{}] del evento {}: {}", row, col, eventId, e.getMessage());
+                return new RuntimeException("Error al consultar asiento específico", e);
+            });
+    }
+    
+    /**
+     * Cantidad de asientos bloqueados y vendidos de varios eventos en una sola llamada al proxy
+     * @param eventIds IDs de los eventos
+     * @return Por ID de evento: {"bloqueados": n, "vendidos": m}; los eventos sin datos en Redis no se incluyen
+     */
+    public Mono<Map<String, Map<String, Integer>>> getSeatCounts(Collection<Long> eventIds) {
+        String ids = eventIds.stream().map(String::valueOf).collect(Collectors.joining(","));
+        logger.info("Solicitando cantidades de asientos de los eventos {} al proxy", ids);
+        
+        return proxyClient
+            .get()
+            .uri(uriBuilder -> uriBuilder.path("/proxy/redis/seat-counts").queryParam("ids", ids).build())
+            .retrieve()
+            .bodyToMono(new ParameterizedTypeReference<Map<String, Map<String, Integer>>>() {})
+            .onErrorMap(e -> {
+                logger.error("Error al obtener cantidades de asientos de los eventos {}: {}", ids, e.getMessage());
+                return new RuntimeException("Error al consultar disponibilidad de eventos", e);
+            });
     }
 }
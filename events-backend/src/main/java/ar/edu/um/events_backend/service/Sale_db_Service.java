@@ -1,20 +1,33 @@
 package ar.edu.um.events_backend.service;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.reactive.function.client.WebClient;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ar.edu.um.events_backend.dto.Sale_seat_db_Response;
 import ar.edu.um.events_backend.dto.Sale_summary_DTO;
 import ar.edu.um.events_backend.entity.Sale_db;
 import ar.edu.um.events_backend.repository.Sale_db_Repository;
+import reactor.core.publisher.Flux;
 
 @Service
 public class Sale_db_Service {
@@ -23,11 +36,20 @@ public class Sale_db_Service {
     
     private final Sale_db_Repository repository;
     private final WebClient externalApiClient;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    
+    @Value("${sync.batch-size:500}")
+    private int batchSize;
 
     public Sale_db_Service(Sale_db_Repository repository,
-                          @Qualifier("externalApiClient") WebClient externalApiClient) {
+                          @Qualifier("externalApiClient") WebClient externalApiClient,
+                          PlatformTransactionManager transactionManager,
+                          ObjectMapper objectMapper) {
         this.repository = repository;
         this.externalApiClient = externalApiClient;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
     }
 
     public List<Sale_db> findAll() {
@@ -42,45 +64,85 @@ public class Sale_db_Service {
         return repository.findByEventoId(eventoId);
     }
     
+    /**
+     * Guarda (o actualiza) una única venta a partir de la respuesta de realizar-venta
+     * 
+     * A diferencia del listado externo, la respuesta trae los asientos vendidos,
+     * que se guardan en asientosJson. La conciliación completa con cátedra queda
+     * a cargo de la tarea periódica ({@link #syncSalesFromExternal()}).
+     * 
+     * @param response Respuesta del servicio externo a realizar-venta
+     * @return Venta guardada
+     */
+    public Sale_db saveFromSaleResponse(Sale_seat_db_Response response) {
+        Sale_db entity = repository.findById(response.getVentaId()).orElseGet(Sale_db::new);
+        entity.setVentaId(response.getVentaId());
+        entity.setEventoId(response.getEventoId());
+        entity.setFechaVenta(response.getFechaVenta());
+        entity.setResultado(response.isResultado());
+        entity.setDescripcion(response.getDescripcion());
+        entity.setPrecioVenta(response.getPrecioVenta());
+        entity.setActualizadoEn(Instant.now());
+        
+        List<Sale_seat_db_Response.AsientoVendido> asientos = response.getAsientos();
+        if (asientos != null) {
+            entity.setCantidadAsientos(asientos.size());
+            try {
+                entity.setAsientosJson(objectMapper.writeValueAsString(asientos));
+            } catch (JsonProcessingException e) {
+                throw new RuntimeException("Error al serializar los asientos de la venta " + response.getVentaId(), e);
+            }
+        }
+        
+        return repository.save(entity);
+    }
+    
+    /**
+     * Sincroniza las ventas desde el servicio externo
+     * 
+     * La respuesta se procesa en streaming y se escribe en lotes de
+     * {@code sync.batch-size} (una transacción por lote); al final se borran
+     * las ventas que ya no existen en cátedra.
+     * 
+     * Corre en paralelo con {@link #saveFromSaleResponse}: una venta guardada mientras
+     * se recorre el listado no figura en él, por eso solo se borran ventas escritas
+     * antes de empezar la conciliación, y un lote que choca con una venta insertada
+     * en el medio se vuelve a aplicar (la venta pasa a actualizarse).
+     */
     public void syncSalesFromExternal() {
         logger.info("Iniciando sincronización de ventas desde servicio externo");
         
+        Instant startedAt = Instant.now();
         try {
-            List<Sale_summary_DTO> externalSales = externalApiClient.get()
+            Flux<Sale_summary_DTO> externalSales = externalApiClient.get()
                     .uri("/api/endpoints/v1/listar-ventas")
                     .retrieve()
-                    .bodyToMono(new ParameterizedTypeReference<List<Sale_summary_DTO>>() {})
-                    .block();
+                    .bodyToFlux(Sale_summary_DTO.class);
             
-            if (externalSales == null || externalSales.isEmpty()) {
+            Set<Long> externalIds = new HashSet<>();
+            int created = 0;
+            for (List<Sale_summary_DTO> batch : externalSales.buffer(batchSize).toIterable(2)) {
+                Integer batchCreated;
+                try {
+                    batchCreated = transactionTemplate.execute(status -> applySaleBatch(batch));
+                } catch (DataIntegrityViolationException e) {
+                    logger.info("Una venta del lote se insertó mientras se conciliaba, se reintenta el lote: {}",
+                            e.getMostSpecificCause().getMessage());
+                    batchCreated = transactionTemplate.execute(status -> applySaleBatch(batch));
+                }
+                created += batchCreated != null ? batchCreated : 0;
+                batch.forEach(dto -> externalIds.add(dto.getVentaId()));
+            }
+            
+            if (externalIds.isEmpty()) {
                 logger.warn("No se recibieron ventas del servicio externo");
                 return;
             }
             
-            logger.info("Recibidas {} ventas del servicio externo", externalSales.size());
-            
-            Set<Long> externalIds = externalSales.stream()
-                    .map(Sale_summary_DTO::getVentaId)
-                    .collect(Collectors.toSet());
-            
-            List<Sale_db> localSales = repository.findAll();
-            int deletedCount = 0;
-            for (Sale_db local : localSales) {
-                if (!externalIds.contains(local.getVentaId())) {
-                    repository.deleteById(local.getVentaId());
-                    deletedCount++;
-                    logger.debug("Venta eliminada (ya no existe en cátedra): ventaId={}", local.getVentaId());
-                }
-            }
-            if (deletedCount > 0) {
-                logger.info("Eliminadas {} ventas que ya no existen en cátedra", deletedCount);
-            }
+            logger.info("Ventas sincronizadas: {} recibidas, {} nuevas, {} existentes",
+                    externalIds.size(), created, externalIds.size() - created);
             
-            for (Sale_summary_DTO dto : externalSales) {
-                Sale_db entity = mapDtoToEntity(dto);
-                repository.save(entity);
-                logger.debug("Venta sincronizada: ventaId={}, resultado={}", entity.getVentaId(), entity.isResultado());
-            }
+            transactionTemplate.executeWithoutResult(status -> deleteStaleSales(externalIds, startedAt));
             
             logger.info("Sincronización de ventas completada exitosamente");
             
@@ -89,8 +151,57 @@ public class Sale_db_Service {
         }
     }
     
+    /**
+     * Aplica un lote de ventas externas: un SELECT de las ventas locales del lote,
+     * UPDATE en lote de las modificadas e INSERT en lote de las nuevas
+     * 
+     * @return Cantidad de ventas nuevas
+     */
+    private int applySaleBatch(List<Sale_summary_DTO> batch) {
+        List<Long> batchIds = batch.stream().map(Sale_summary_DTO::getVentaId).collect(Collectors.toList());
+        Map<Long, Sale_db> localById = repository.findAllById(batchIds).stream()
+                .collect(Collectors.toMap(Sale_db::getVentaId, Function.identity()));
+        
+        List<Sale_db> newSales = new ArrayList<>();
+        for (Sale_summary_DTO dto : batch) {
+            Sale_db entity = localById.get(dto.getVentaId());
+            if (entity != null) {
+                copyDtoToEntity(dto, entity);
+            } else {
+                newSales.add(mapDtoToEntity(dto));
+            }
+        }
+        repository.persistAll(newSales);
+        return newSales.size();
+    }
+    
+    /**
+     * Borra (en lotes) las ventas locales que ya no existen en cátedra
+     * 
+     * @param startedAt Inicio de la conciliación: las ventas escritas después no se borran
+     */
+    private void deleteStaleSales(Set<Long> externalIds, Instant startedAt) {
+        List<Long> staleIds = repository.findIdsUpdatedBefore(startedAt).stream()
+                .filter(id -> !externalIds.contains(id))
+                .collect(Collectors.toList());
+        for (int i = 0; i < staleIds.size(); i += batchSize) {
+            repository.deleteAllByIdInBatch(staleIds.subList(i, Math.min(i + batchSize, staleIds.size())));
+        }
+        if (!staleIds.isEmpty()) {
+            logger.info("Eliminadas {} ventas que ya no existen en cátedra", staleIds.size());
+        }
+    }
+    
     private Sale_db mapDtoToEntity(Sale_summary_DTO dto) {
         Sale_db entity = new Sale_db();
+        copyDtoToEntity(dto, entity);
+        entity.setAsientosJson(null);
+        entity.setActualizadoEn(Instant.now());
+        return entity;
+    }
+    
+    // El listado externo no trae los asientos: asientosJson no se modifica en ventas existentes
+    private void copyDtoToEntity(Sale_summary_DTO dto, Sale_db entity) {
         entity.setVentaId(dto.getVentaId());
         entity.setEventoId(dto.getEventoId());
         entity.setFechaVenta(dto.getFechaVenta());
@@ -98,7 +209,5 @@ public class Sale_db_Service {
         entity.setDescripcion(dto.getDescripcion());
         entity.setPrecioVenta(dto.getPrecioVenta());
         entity.setCantidadAsientos(dto.getCantidadAsientos());
-        entity.setAsientosJson(null);
-        return entity;
     }
 }
@@ -8,7 +8,9 @@ import org.springframework.web.reactive.function.client.WebClient;
 
 import ar.edu.um.events_backend.dto.Sale_seat_db_Request;
 import ar.edu.um.events_backend.dto.Sale_seat_db_Response;
+import ar.edu.um.events_backend.exception.UpstreamUnavailableException;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 @Service
 public class Sale_seat_db_Service {
@@ -24,31 +26,34 @@ public class Sale_seat_db_Service {
         this.saleDbService = saleDbService;
     }
 
-    public Sale_seat_db_Response sellSeats(Sale_seat_db_Request request) {
-        try {
-            Sale_seat_db_Response response = externalApiClient.post()
-                    .uri("/api/endpoints/v1/realizar-venta")
-                    .body(Mono.just(request), Sale_seat_db_Request.class)
-                    .retrieve()
-                    .bodyToMono(Sale_seat_db_Response.class)
-                    .block();
-            
-            if (response != null && response.getVentaId() != null) {
-                try {
+    /**
+     * Realiza la venta en el servicio externo sin bloquear el hilo que atiende la petición
+     * 
+     * La venta se guarda en la base local en un hilo de boundedElastic (JPA es bloqueante);
+     * si ese guardado falla la venta igual se devuelve, y la conciliación periódica la recupera.
+     */
+    public Mono<Sale_seat_db_Response> sellSeats(Sale_seat_db_Request request) {
+        return externalApiClient.post()
+                .uri("/api/endpoints/v1/realizar-venta")
+                .bodyValue(request)
+                .retrieve()
+                .bodyToMono(Sale_seat_db_Response.class)
+                .onErrorMap(e -> !(e instanceof UpstreamUnavailableException),
+                        e -> new RuntimeException("Error al realizar la venta de asientos: " + e.getMessage(), e))
+                .flatMap(response -> {
+                    if (response.getVentaId() == null) {
+                        return Mono.just(response);
+                    }
                     logger.info("Venta realizada: ventaId={}, eventoId={}, resultado={}", 
                                response.getVentaId(), response.getEventoId(), response.isResultado());
                     
-                    saleDbService.syncSalesFromExternal();
-                    
-                } catch (Exception e) {
-                    logger.error("Error al sincronizar ventas desde cátedra: {}", e.getMessage(), e);
-                }
-            }
-            
-            return response;
-            
-        } catch (Exception e) {
-            throw new RuntimeException("Error al realizar la venta de asientos: " + e.getMessage(), e);
-        }
+                    // Solo se guarda la venta realizada; el resto se concilia periódicamente
+                    return Mono.fromCallable(() -> saleDbService.saveFromSaleResponse(response))
+                            .subscribeOn(Schedulers.boundedElastic())
+                            .doOnError(e -> logger.error("Error al guardar la venta {} en la base local: {}",
+                                       response.getVentaId(), e.getMessage(), e))
+                            .onErrorResume(e -> Mono.empty())
+                            .thenReturn(response);
+                });
     }
 }
@@ -0,0 +1,359 @@
+package ar.edu.um.events_backend.service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import jakarta.annotation.PreDestroy;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Transmisión en vivo (SSE) del mapa de asientos de un evento
+ *
+ * Por cada evento con al menos un suscriptor hay un único sondeo al proxy
+ * (cada {@code seats.stream.poll-ms}), sin importar cuántos clientes estén conectados.
+ * - Al conectarse, el cliente recibe un evento {@code snapshot} con el mapa completo
+ * - Después recibe eventos {@code delta} solo con los asientos que cambiaron
+ *   (los que dejan de figurar, por ejemplo un bloqueo vencido, llegan como "libre")
+ * - Cada {@code seats.stream.heartbeat-ms} sin cambios se envía un comentario para
+ *   mantener viva la conexión y detectar clientes desconectados
+ * - Cuando se va el último suscriptor se detiene el sondeo del evento
+ * - Si el proxy no conoce el evento, los clientes reciben un evento {@code not-found}
+ *   y la conexión se cierra
+ */
+@Service
+public class SeatStreamService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SeatStreamService.class);
+
+    private final RedisService redisService;
+    private final ObjectMapper objectMapper;
+    private final long pollMillis;
+    private final long heartbeatMillis;
+    private final long emitterTimeoutMillis;
+
+    private final Map<Long, EventFeed> feeds = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2, r -> {
+        Thread thread = new Thread(r, "seat-stream");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public SeatStreamService(RedisService redisService,
+                             ObjectMapper objectMapper,
+                             @Value("${seats.stream.poll-ms:1000}") long pollMillis,
+                             @Value("${seats.stream.heartbeat-ms:15000}") long heartbeatMillis,
+                             @Value("${seats.stream.emitter-timeout-ms:1800000}") long emitterTimeoutMillis) {
+        this.redisService = redisService;
+        this.objectMapper = objectMapper;
+        this.pollMillis = pollMillis;
+        this.heartbeatMillis = heartbeatMillis;
+        this.emitterTimeoutMillis = emitterTimeoutMillis;
+    }
+
+    /**
+     * Suscribe un cliente al mapa de asientos del evento
+     *
+     * @param eventId ID del evento
+     * @return Emisor SSE del cliente
+     */
+    public SseEmitter subscribe(Long eventId) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+        EventFeed feed = feeds.compute(eventId, (id, existing) -> {
+            EventFeed f = existing != null ? existing : new EventFeed(id);
+            f.emitters.add(emitter);
+            return f;
+        });
+
+        emitter.onCompletion(() -> unsubscribe(eventId, emitter));
+        emitter.onTimeout(() -> unsubscribe(eventId, emitter));
+        emitter.onError(e -> unsubscribe(eventId, emitter));
+
+        // Snapshot inicial: el último leído, o el de la próxima lectura si todavía no hay uno
+        feed.sendSnapshot(emitter);
+        return emitter;
+    }
+
+    private void unsubscribe(Long eventId, SseEmitter emitter) {
+        EventFeed current = feeds.get(eventId);
+        if (current != null) {
+            current.detach(emitter);
+        }
+        feeds.computeIfPresent(eventId, (id, feed) -> {
+            feed.emitters.remove(emitter);
+            if (feed.emitters.isEmpty()) {
+                feed.stop();
+                logger.info("Sin suscriptores para el mapa de asientos del evento {}, se detiene el sondeo", id);
+                return null;
+            }
+            return feed;
+        });
+    }
+
+    /**
+     * Estado de las transmisiones: eventos con sondeo activo y clientes por evento
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        Map<Long, Integer> subscribers = new LinkedHashMap<>();
+        feeds.forEach((id, feed) -> subscribers.put(id, feed.emitters.size()));
+        stats.put("events", feeds.size());
+        stats.put("subscribers", subscribers);
+        stats.put("pollMs", pollMillis);
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        feeds.values().forEach(feed -> feed.emitters.forEach(SseEmitter::complete));
+        feeds.clear();
+    }
+
+    /**
+     * Sondeo y estado de un evento
+     *
+     * Las lecturas al proxy no bloquean ningún hilo: el sondeo programado solo inicia
+     * la consulta (como máximo una en curso por evento) y la respuesta se procesa en
+     * {@code boundedElastic}; el lock del feed nunca se retiene durante una llamada al proxy.
+     * El estado y los envíos a los clientes se hacen con el lock tomado, así cada cliente
+     * recibe su snapshot antes que cualquier delta posterior a ese snapshot. Es un
+     * {@link ReentrantLock} y no un monitor para no fijar hilos virtuales mientras se escribe.
+     */
+    private final class EventFeed {
+
+        private final Long eventId;
+        // Suscriptores del feed (el feed se detiene cuando queda vacío)
+        private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+        private final AtomicBoolean reading = new AtomicBoolean();
+        private final ScheduledFuture<?> poller;
+        private final ReentrantLock lock = new ReentrantLock();
+
+        // Protegidos por lock: último mapa leído, clientes que ya recibieron su snapshot
+        // (reciben los deltas) y clientes esperando la primera lectura
+        private String lastJson;
+        private Map<String, JsonNode> lastSeats;
+        private long lastSentAt = System.currentTimeMillis();
+        // (copia al escribir: un envío fallido puede quitar al cliente mientras se recorre la lista)
+        private final List<SseEmitter> live = new CopyOnWriteArrayList<>();
+        private final List<SseEmitter> awaitingSnapshot = new CopyOnWriteArrayList<>();
+
+        EventFeed(Long eventId) {
+            this.eventId = eventId;
+            this.poller = scheduler.scheduleWithFixedDelay(this::read, pollMillis, pollMillis, TimeUnit.MILLISECONDS);
+            logger.info("Iniciando sondeo del mapa de asientos del evento {}", eventId);
+        }
+
+        void stop() {
+            poller.cancel(false);
+        }
+
+        /**
+         * Envía el último mapa leído, o deja al cliente esperando la próxima lectura
+         */
+        void sendSnapshot(SseEmitter emitter) {
+            boolean pending;
+            lock.lock();
+            try {
+                pending = lastJson == null;
+                if (pending) {
+                    awaitingSnapshot.add(emitter);
+                } else {
+                    send(emitter, "snapshot", lastJson);
+                    live.add(emitter);
+                }
+            } finally {
+                lock.unlock();
+            }
+            if (pending) {
+                read();
+            }
+        }
+
+        void detach(SseEmitter emitter) {
+            lock.lock();
+            try {
+                live.remove(emitter);
+                awaitingSnapshot.remove(emitter);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Inicia una lectura del mapa en el proxy si no hay otra en curso
+         */
+        void read() {
+            if (!reading.compareAndSet(false, true)) {
+                return;
+            }
+            redisService.getSeatsForEvent(eventId)
+                    .map(Optional::of)
+                    .defaultIfEmpty(Optional.empty())
+                    .publishOn(Schedulers.boundedElastic())
+                    .doFinally(signal -> reading.set(false))
+                    .subscribe(json -> json.ifPresentOrElse(this::onSeats, this::onMissing), this::onError);
+        }
+
+        private void onSeats(String json) {
+            lock.lock();
+            try {
+                String delta = null;
+                if (!json.equals(lastJson)) {
+                    Map<String, JsonNode> previousSeats = lastSeats;
+                    try {
+                        lastSeats = index(objectMapper.readTree(json));
+                        lastJson = json;
+                        if (previousSeats != null) {
+                            delta = delta(previousSeats, lastSeats);
+                        }
+                    } catch (IOException e) {
+                        logger.warn("Mapa de asientos inválido para el evento {}: {}", eventId, e.getMessage());
+                    }
+                }
+
+                long now = System.currentTimeMillis();
+                if (delta != null) {
+                    lastSentAt = now;
+                    String changes = delta;
+                    live.forEach(emitter -> send(emitter, "delta", changes));
+                } else if (heartbeatDue(now)) {
+                    live.forEach(this::heartbeat);
+                    awaitingSnapshot.forEach(this::heartbeat);
+                }
+
+                // Los que esperaban reciben el mapa ya actualizado, sin el delta
+                if (lastJson != null && !awaitingSnapshot.isEmpty()) {
+                    String snapshot = lastJson;
+                    awaitingSnapshot.forEach(emitter -> send(emitter, "snapshot", snapshot));
+                    live.addAll(awaitingSnapshot);
+                    awaitingSnapshot.clear();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * El proxy no tiene el evento: si nunca se leyó, se cierran las conexiones;
+         * si ya se había leído, se conserva el último mapa conocido
+         */
+        private void onMissing() {
+            lock.lock();
+            try {
+                if (lastJson == null) {
+                    logger.info("El evento {} no existe en el proxy, se cierran sus transmisiones", eventId);
+                    String notFound = "{\"eventoId\":" + eventId + "}";
+                    awaitingSnapshot.clear();
+                    emitters.forEach(emitter -> {
+                        send(emitter, "not-found", notFound);
+                        emitter.complete();
+                    });
+                } else if (heartbeatDue(System.currentTimeMillis())) {
+                    live.forEach(this::heartbeat);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void onError(Throwable e) {
+            logger.warn("Error al sondear el mapa de asientos del evento {}: {}", eventId, e.getMessage());
+            lock.lock();
+            try {
+                if (heartbeatDue(System.currentTimeMillis())) {
+                    live.forEach(this::heartbeat);
+                    awaitingSnapshot.forEach(this::heartbeat);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // Llamar con el lock tomado
+        private boolean heartbeatDue(long now) {
+            if (now - lastSentAt >= heartbeatMillis) {
+                lastSentAt = now;
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Asientos que cambiaron entre dos lecturas; null si no hay diferencias
+         */
+        private String delta(Map<String, JsonNode> previous, Map<String, JsonNode> current) throws IOException {
+            List<JsonNode> changed = new ArrayList<>();
+            current.forEach((key, seat) -> {
+                if (!seat.equals(previous.get(key))) {
+                    changed.add(seat);
+                }
+            });
+            previous.forEach((key, seat) -> {
+                if (!current.containsKey(key)) {
+                    ObjectNode released = seat.deepCopy();
+                    released.put("estado", "libre");
+                    released.remove("expira");
+                    changed.add(released);
+                }
+            });
+            if (changed.isEmpty()) {
+                return null;
+            }
+
+            ObjectNode delta = objectMapper.createObjectNode();
+            delta.put("eventoId", eventId);
+            ArrayNode asientos = delta.putArray("asientos");
+            changed.forEach(asientos::add);
+            return objectMapper.writeValueAsString(delta);
+        }
+
+        private Map<String, JsonNode> index(JsonNode root) {
+            Map<String, JsonNode> seats = new LinkedHashMap<>();
+            JsonNode asientos = root.path("asientos");
+            for (JsonNode seat : asientos) {
+                seats.put(seat.path("fila").asInt() + "-" + seat.path("columna").asInt(), seat);
+            }
+            return seats;
+        }
+
+        private void send(SseEmitter emitter, String name, String json) {
+            try {
+                emitter.send(SseEmitter.event().name(name).data(json, MediaType.APPLICATION_JSON));
+            } catch (Exception e) {
+                emitter.completeWithError(e);
+            }
+        }
+
+        private void heartbeat(SseEmitter emitter) {
+            try {
+                emitter.send(SseEmitter.event().comment("ping"));
+            } catch (Exception e) {
+                emitter.completeWithError(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package ar.edu.um.events_backend.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import ar.edu.um.events_backend.exception.UpstreamUnavailableException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class ExternalApiResilienceFilterTest {
+
+    private static final String EVENTOS = "http://external/api/endpoints/v1/eventos";
+
+    private final CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+    private final BulkheadRegistry bulkheadRegistry = BulkheadRegistry.of(BulkheadConfig.custom()
+            .maxConcurrentCalls(1)
+            .maxWaitDuration(Duration.ZERO)
+            .build());
+
+    private WebClient client(Flux<DataBuffer> body) {
+        return WebClient.builder()
+                .filter(new ExternalApiResilienceFilter(circuitBreakerRegistry, bulkheadRegistry))
+                .exchangeFunction(request -> Mono.just(ClientResponse.create(HttpStatus.OK)
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .body(body)
+                        .build()))
+                .build();
+    }
+
+    private static Flux<DataBuffer> chunks(String... parts) {
+        return Flux.fromArray(parts)
+                .delayElements(Duration.ofMillis(50))
+                .map(part -> DefaultDataBufferFactory.sharedInstance.wrap(part.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void bulkheadPermitIsHeldUntilBodyIsRead() {
+        Bulkhead bulkhead = bulkheadRegistry.bulkhead("external-eventos");
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker("external-eventos");
+
+        String body = client(chunks("[1,", "2,", "3]")).get().uri(EVENTOS)
+                .retrieve()
+                .bodyToFlux(DataBuffer.class)
+                .map(chunk -> chunk.toString(StandardCharsets.UTF_8))
+                .doOnNext(chunk -> assertEquals(0, bulkhead.getMetrics().getAvailableConcurrentCalls()))
+                .collectList()
+                .map(parts -> String.join("", parts))
+                .block();
+
+        assertEquals("[1,2,3]", body);
+        assertEquals(1, bulkhead.getMetrics().getAvailableConcurrentCalls());
+        assertEquals(1, circuitBreaker.getMetrics().getNumberOfSuccessfulCalls());
+    }
+
+    @Test
+    void concurrentCallIsRejectedWhileBodyIsStreaming() {
+        WebClient client = client(chunks("[1,", "2]"));
+
+        String rejected = client.get().uri(EVENTOS)
+                .retrieve()
+                .bodyToFlux(DataBuffer.class)
+                .take(1)
+                .flatMap(chunk -> client.get().uri(EVENTOS).retrieve().bodyToMono(String.class)
+                        .onErrorResume(UpstreamUnavailableException.class, e -> Mono.just("rechazada")))
+                .blockFirst();
+
+        assertEquals("rechazada", rejected);
+    }
+
+    @Test
+    void errorInTheMiddleOfTheBodyCountsAsFailure() {
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker("external-eventos");
+        Flux<DataBuffer> body = chunks("[1,").concatWith(Flux.error(new IllegalStateException("conexión cerrada")));
+
+        assertThrows(RuntimeException.class, () -> client(body).get().uri(EVENTOS)
+                .retrieve()
+                .bodyToMono(String.class)
+                .block());
+
+        assertEquals(1, circuitBreaker.getMetrics().getNumberOfFailedCalls());
+        assertEquals(1, bulkheadRegistry.bulkhead("external-eventos").getMetrics().getAvailableConcurrentCalls());
+    }
+}
@@ -0,0 +1,70 @@
+package ar.edu.um.events_backend.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ar.edu.um.events_backend.service.Event_db_Service;
+import ar.edu.um.events_backend.service.RedisService;
+import ar.edu.um.events_backend.service.SeatStreamService;
+import reactor.core.publisher.Mono;
+
+class RedisControllerTest {
+
+    private static final List<Long> IDS = List.of(1L, 2L, 3L, 4L);
+
+    private final Event_db_Service eventDbService = mock(Event_db_Service.class);
+
+    private RedisController controller(String seatCounts) {
+        WebClient proxyClient = WebClient.builder()
+                .exchangeFunction(request -> Mono.just(ClientResponse.create(HttpStatus.OK)
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .body(seatCounts)
+                        .build()))
+                .build();
+        RedisService redisService = new RedisService(proxyClient, new ObjectMapper(), 250);
+        return new RedisController(redisService, mock(SeatStreamService.class), eventDbService);
+    }
+
+    @Test
+    void availabilityCombinesCapacityAndCounts() {
+        // 1: con datos en ambos lados; 2: sin datos en Redis; 3: sin dimensiones en la base;
+        // 4: más ocupados que capacidad
+        when(eventDbService.findCapacityByIds(IDS)).thenReturn(Map.of(1L, 100, 2L, 50, 4L, 10));
+        String counts = """
+                {"1":{"bloqueados":10,"vendidos":20},
+                 "3":{"bloqueados":1,"vendidos":2},
+                 "4":{"bloqueados":8,"vendidos":5}}""";
+
+        List<Map<String, Object>> availability = controller(counts).getAvailability(IDS).block().getBody();
+
+        assertEquals(4, availability.size());
+        assertEquals(event(1L, 100, 10, 20, 70), availability.get(0));
+        assertEquals(event(2L, 50, 0, 0, 50), availability.get(1));
+        assertEquals(event(3L, null, 1, 2, null), availability.get(2));
+        assertEquals(event(4L, 10, 8, 5, 0), availability.get(3));
+    }
+
+    private static Map<String, Object> event(Long id, Integer capacidad, int bloqueados, int vendidos, Integer disponibles) {
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("eventoId", id);
+        event.put("capacidad", capacidad);
+        event.put("bloqueados", bloqueados);
+        event.put("vendidos", vendidos);
+        event.put("disponibles", disponibles);
+        return event;
+    }
+}
@@ -0,0 +1,115 @@
+package ar.edu.um.events_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ar.edu.um.events_backend.dto.Block_seat_db_Request;
+import ar.edu.um.events_backend.dto.Block_seat_db_Response;
+import ar.edu.um.events_backend.exception.SeatConflictException;
+import reactor.core.publisher.Mono;
+
+class Block_seat_db_ServiceTest {
+
+    private static final String SEATS = """
+            {"eventoId":1,"asientos":[
+              {"fila":1,"columna":1,"estado":"Bloqueado","expira":"2026-10-18T12:00:00Z"},
+              {"fila":1,"columna":2,"estado":"Vendido"},
+              {"fila":1,"columna":3,"estado":"libre"}
+            ]}""";
+
+    private final AtomicInteger externalCalls = new AtomicInteger();
+    private final RedisService redisService = mock(RedisService.class);
+
+    private Block_seat_db_Service service() {
+        WebClient externalApiClient = WebClient.builder()
+                .exchangeFunction(request -> {
+                    externalCalls.incrementAndGet();
+                    return Mono.just(ClientResponse.create(HttpStatus.OK)
+                            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                            .body("{\"resultado\":true,\"eventoId\":1}")
+                            .build());
+                })
+                .build();
+        return new Block_seat_db_Service(externalApiClient, redisService, new ObjectMapper(), true);
+    }
+
+    private static Block_seat_db_Request request(int... columnas) {
+        Block_seat_db_Request request = new Block_seat_db_Request();
+        request.setEventoId(1L);
+        request.setAsientos(Arrays.stream(columnas).mapToObj(columna -> {
+            Block_seat_db_Request.AsientoRequest asiento = new Block_seat_db_Request.AsientoRequest();
+            asiento.setFila(1);
+            asiento.setColumna(columna);
+            return asiento;
+        }).toList());
+        return request;
+    }
+
+    @Test
+    void heldOrSoldSeatsAreRejectedWithoutCallingTheExternalService() {
+        when(redisService.getSeatsForEvent(1L)).thenReturn(Mono.just(SEATS));
+
+        SeatConflictException conflict = assertThrows(SeatConflictException.class,
+                () -> service().blockSeatsExternal(request(1, 2, 3, 4)).block());
+
+        assertEquals(List.of("Fila 1, columna 1: bloqueado", "Fila 1, columna 2: vendido"), conflict.getAsientos());
+        assertEquals(0, externalCalls.get());
+        verify(redisService, never()).getSeatDetail(1L, 1, 1);
+    }
+
+    @Test
+    void freeSeatsAreSentToTheExternalService() {
+        when(redisService.getSeatsForEvent(1L)).thenReturn(Mono.just(SEATS));
+
+        Block_seat_db_Response response = service().blockSeatsExternal(request(3, 4)).block();
+
+        assertTrue(response.isResultado());
+        assertEquals(1, externalCalls.get());
+    }
+
+    @Test
+    void proxyErrorsFailOpen() {
+        when(redisService.getSeatsForEvent(1L)).thenReturn(Mono.error(new RuntimeException("proxy caído")));
+
+        Block_seat_db_Response response = service().blockSeatsExternal(request(1)).block();
+
+        assertTrue(response.isResultado());
+        assertEquals(1, externalCalls.get());
+    }
+
+    @Test
+    void invalidProxyResponseFailsOpen() {
+        when(redisService.getSeatsForEvent(1L)).thenReturn(Mono.just("no es json"));
+
+        service().blockSeatsExternal(request(1)).block();
+
+        assertEquals(1, externalCalls.get());
+    }
+
+    @Test
+    void unknownEventFailsOpen() {
+        when(redisService.getSeatsForEvent(1L)).thenReturn(Mono.empty());
+
+        service().blockSeatsExternal(request(1)).block();
+
+        assertEquals(1, externalCalls.get());
+    }
+}
@@ -0,0 +1,106 @@
+package ar.edu.um.events_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import reactor.core.publisher.Mono;
+
+class RedisServiceTest {
+
+    private static final String SEATS = "{\"eventoId\":1,\"asientos\":[{\"fila\":1,\"columna\":2,\"estado\":\"vendido\"}]}";
+
+    private final AtomicInteger proxyCalls = new AtomicInteger();
+
+    private RedisService redisService(long ttlMillis, HttpStatus status) {
+        WebClient proxyClient = WebClient.builder()
+                .exchangeFunction(request -> {
+                    proxyCalls.incrementAndGet();
+                    ClientResponse response = ClientResponse.create(status)
+                            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                            .body(status.is2xxSuccessful() ? SEATS : "")
+                            .build();
+                    return Mono.delay(Duration.ofMillis(200)).thenReturn(response);
+                })
+                .build();
+        return new RedisService(proxyClient, new ObjectMapper(), ttlMillis);
+    }
+
+    @Test
+    void concurrentCallersShareOneProxyRequest() throws Exception {
+        RedisService redisService = redisService(250, HttpStatus.OK);
+        int callers = 50;
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return redisService.getSeatsForEvent(1L).block();
+                }));
+            }
+            start.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals(SEATS, result.get());
+            }
+            assertEquals(1, proxyCalls.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void resultIsReusedOnlyWithinTtl() throws Exception {
+        RedisService redisService = redisService(300, HttpStatus.OK);
+
+        redisService.getSeatsForEvent(1L).block();
+        redisService.getSeatsForEvent(1L).block();
+        assertEquals(1, proxyCalls.get());
+
+        Thread.sleep(400);
+        redisService.getSeatsForEvent(1L).block();
+        assertEquals(2, proxyCalls.get());
+
+        redisService.getSeatsForEvent(2L).block();
+        assertEquals(3, proxyCalls.get());
+    }
+
+    @Test
+    void expiredResultsAreRemoved() throws Exception {
+        RedisService redisService = redisService(100, HttpStatus.OK);
+
+        Mono.when(redisService.getSeatsForEvent(1L), redisService.getSeatsForEvent(2L)).block();
+        assertEquals(2, redisService.getSeatsStats().get("events"));
+
+        Thread.sleep(300);
+        assertEquals(0, redisService.getSeatsStats().get("events"));
+    }
+
+    @Test
+    void errorsAreNotReused() {
+        RedisService redisService = redisService(1000, HttpStatus.INTERNAL_SERVER_ERROR);
+
+        assertThrows(RuntimeException.class, () -> redisService.getSeatsForEvent(1L).block());
+        assertThrows(RuntimeException.class, () -> redisService.getSeatsForEvent(1L).block());
+        assertEquals(2, proxyCalls.get());
+    }
+}
@@ -1,6 +1,7 @@
 package ar.edu.um.events_proxy.auth;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
@@ -9,6 +10,7 @@ import org.springframework.stereotype.Service;
 import javax.crypto.SecretKey;
 import java.util.Base64;
 import java.util.Date;
+import java.util.Optional;
 
 /**
  * Servicio para validar tokens JWT en el proxy
@@ -19,8 +21,17 @@ import java.util.Date;
 @Service
 public class JwtService {
 
-    @Value("${application.security.jwt.secret-key}")
-    private String secretKey;
+    // La clave y el parser se construyen una sola vez (ambos son inmutables y thread-safe)
+    private final SecretKey signInKey;
+    private final JwtParser jwtParser;
+
+    public JwtService(@Value("${application.security.jwt.secret-key}") String secretKey) {
+        this.signInKey = buildSignInKey(secretKey);
+        this.jwtParser = Jwts
+                .parser()
+                .verifyWith(signInKey)          // Usa el secret-key para validar la firma
+                .build();
+    }
 
     /**
      * Valida si un token JWT es válido
@@ -33,26 +44,26 @@ public class JwtService {
      * @return true si el token es válido, false si es inválido o expirado
      */
     public boolean isTokenValid(String token) {
-        try {
-            extractAllClaims(token);           // Intenta parsear el token (valida la firma)
-            return !isTokenExpired(token);     // Verifica que no esté expirado
-        } catch (Exception e) {
-            return false;                      // Si falla el parseo = token inválido o firma incorrecta
-        }
-    }
-
-    /**
-     * Verifica si el token está expirado comparando con la fecha actual
-     */
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+        return validateToken(token).isPresent();
     }
 
     /**
-     * Extrae la fecha de expiración del token
+     * Valida el token parseándolo una sola vez y devuelve sus claims
+     * 
+     * @param token El token JWT a validar
+     * @return Claims del token, o vacío si la firma es incorrecta, está mal formado o expiró
      */
-    private Date extractExpiration(String token) {
-        return extractAllClaims(token).getExpiration();
+    public Optional<Claims> validateToken(String token) {
+        try {
+            Claims claims = extractAllClaims(token);   // Parsea y valida la firma (y exp)
+            Date expiration = claims.getExpiration();
+            if (expiration != null && expiration.before(new Date())) {
+                return Optional.empty();
+            }
+            return Optional.of(claims);
+        } catch (Exception e) {
+            return Optional.empty();                   // Si falla el parseo = token inválido o firma incorrecta
+        }
     }
 
     /**
@@ -62,10 +73,7 @@ public class JwtService {
      * Si la firma no coincide, lanza una excepción.
      */
     private Claims extractAllClaims(String token) {
-        return Jwts
-                .parser()
-                .verifyWith(getSignInKey())     // Usa el secret-key para validar la firma
-                .build()
+        return jwtParser
                 .parseSignedClaims(token)       // Parsea y valida el token (lanza excepción si es inválido)
                 .getPayload();                  // Retorna los claims (datos) del token
     }
@@ -73,7 +81,7 @@ public class JwtService {
     /**
      * Convierte el secret-key de Base64 a una clave HMAC para validar
      */
-    private SecretKey getSignInKey() {
+    private static SecretKey buildSignInKey(String secretKey) {
         byte[] keyBytes = Base64.getDecoder().decode(secretKey);  // Decodifica de Base64
         return Keys.hmacShaKeyFor(keyBytes);                      // Crea la clave HMAC-SHA256
     }
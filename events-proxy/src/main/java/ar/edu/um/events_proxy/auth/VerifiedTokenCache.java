@@ -0,0 +1,80 @@
+package ar.edu.um.events_proxy.auth;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cache acotada de tokens JWT ya verificados
+ *
+ * Guarda el SHA-256 del token (no el token) junto con su vencimiento. Un token que
+ * ya pasó la verificación de firma se acepta sin volver a hacer Base64, parseo
+ * JSON ni HMAC hasta que vence. Como máximo {@code application.security.jwt.verified-cache.max-entries}
+ * entradas: al llenarse se descartan las vencidas y, si no alcanza, se vacía.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final int maxEntries;
+    private final Map<String, Long> expiryByDigest = new ConcurrentHashMap<>();
+    private final MessageDigest sha256Prototype;
+
+    public VerifiedTokenCache(@Value("${application.security.jwt.verified-cache.max-entries:10000}") int maxEntries) {
+        this.maxEntries = maxEntries;
+        try {
+            this.sha256Prototype = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    /**
+     * @return true si el token ya fue verificado y todavía no venció
+     */
+    public boolean isVerified(String token, long nowMillis) {
+        String digest = digest(token);
+        Long expiresAt = expiryByDigest.get(digest);
+        if (expiresAt == null) {
+            return false;
+        }
+        if (nowMillis >= expiresAt) {
+            expiryByDigest.remove(digest, expiresAt);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Registra un token cuya firma se acaba de verificar
+     *
+     * @param expiresAtMillis Vencimiento del token (claim exp)
+     */
+    public void put(String token, long expiresAtMillis, long nowMillis) {
+        if (expiryByDigest.size() >= maxEntries) {
+            expiryByDigest.values().removeIf(expiresAt -> nowMillis >= expiresAt);
+            if (expiryByDigest.size() >= maxEntries) {
+                expiryByDigest.clear();
+            }
+        }
+        expiryByDigest.put(digest(token), expiresAtMillis);
+    }
+
+    public int size() {
+        return expiryByDigest.size();
+    }
+
+    private String digest(String token) {
+        try {
+            MessageDigest sha256 = (MessageDigest) sha256Prototype.clone();
+            return Base64.getEncoder().encodeToString(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package ar.edu.um.events_proxy.config;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.core.env.Environment;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import io.netty.channel.ChannelOption;
+import jakarta.annotation.PreDestroy;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Pools de conexiones HTTP dedicados por servicio remoto ("upstream")
+ *
+ * Cada upstream tiene su propio {@link ConnectionProvider}, así un servicio lento
+ * agota solo sus conexiones y no las del resto. Configuración por upstream
+ * ({@code http.clients.<nombre>.*}, con valores por defecto si no se define):
+ * - max-connections / pending-acquire-max / pending-acquire-timeout-ms: tamaño del pool y de la cola de espera
+ * - max-idle-time-ms / max-life-time-ms / evict-in-background-ms: desalojo de conexiones ociosas o viejas
+ * - connect-timeout-ms / response-timeout-ms: tiempos máximos de conexión y de respuesta
+ * - max-in-memory-size: límite del buffer de los codecs
+ *
+ * Las conexiones usan keep-alive HTTP y TCP. Las métricas de cada pool se publican
+ * en Micrometer con el nombre del upstream ({@code reactor.netty.connection.provider.*}).
+ */
+@Component
+public class UpstreamHttpClients {
+
+    private static final String PREFIX = "http.clients.";
+
+    private final Environment environment;
+    private final Map<String, ConnectionProvider> providers = new ConcurrentHashMap<>();
+
+    public UpstreamHttpClients(Environment environment) {
+        this.environment = environment;
+    }
+
+    /**
+     * Aplica al builder el pool, los timeouts y el límite de buffer del upstream indicado
+     *
+     * @param builder Builder de WebClient a configurar
+     * @param upstream Nombre del upstream (clave en {@code http.clients})
+     * @return El mismo builder, para seguir encadenando
+     */
+    public WebClient.Builder configure(WebClient.Builder builder, String upstream) {
+        int maxInMemorySize = (int) property(upstream, "max-in-memory-size", DataSize.class, DataSize.ofMegabytes(16)).toBytes();
+        return builder
+                .clientConnector(new ReactorClientHttpConnector(httpClient(upstream)))
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(maxInMemorySize));
+    }
+
+    private HttpClient httpClient(String upstream) {
+        int connectTimeoutMs = property(upstream, "connect-timeout-ms", Integer.class, 2000);
+        long responseTimeoutMs = property(upstream, "response-timeout-ms", Long.class, 10000L);
+
+        return HttpClient.create(provider(upstream))
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .keepAlive(true)
+                .responseTimeout(Duration.ofMillis(responseTimeoutMs));
+    }
+
+    private ConnectionProvider provider(String upstream) {
+        return providers.computeIfAbsent(upstream, name -> ConnectionProvider.builder(name)
+                .maxConnections(property(name, "max-connections", Integer.class, 50))
+                .pendingAcquireMaxCount(property(name, "pending-acquire-max", Integer.class, 500))
+                .pendingAcquireTimeout(Duration.ofMillis(property(name, "pending-acquire-timeout-ms", Long.class, 5000L)))
+                .maxIdleTime(Duration.ofMillis(property(name, "max-idle-time-ms", Long.class, 30000L)))
+                .maxLifeTime(Duration.ofMillis(property(name, "max-life-time-ms", Long.class, 300000L)))
+                .evictInBackground(Duration.ofMillis(property(name, "evict-in-background-ms", Long.class, 30000L)))
+                .metrics(true)
+                .build());
+    }
+
+    private <T> T property(String upstream, String key, Class<T> type, T defaultValue) {
+        return environment.getProperty(PREFIX + upstream + "." + key, type, defaultValue);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        providers.values().forEach(ConnectionProvider::dispose);
+    }
+}
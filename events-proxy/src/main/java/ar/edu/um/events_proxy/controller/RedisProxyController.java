@@ -1,21 +1,40 @@
 package ar.edu.um.events_proxy.controller;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import ar.edu.um.events_proxy.dto.SeatHoldRequest;
+import ar.edu.um.events_proxy.seatmap.SeatMapCache;
 import ar.edu.um.events_proxy.service.RedisProxyService;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+
 @RestController
 @RequestMapping("/proxy/redis")
 public class RedisProxyController {
 
+    private static final Logger logger = LoggerFactory.getLogger(RedisProxyController.class);
+
     private final RedisProxyService redisProxyService;
+    private final SeatMapCache seatMapCache;
 
-    public RedisProxyController(RedisProxyService redisProxyService) {
+    public RedisProxyController(RedisProxyService redisProxyService, SeatMapCache seatMapCache) {
         this.redisProxyService = redisProxyService;
+        this.seatMapCache = seatMapCache;
     }
 
     /**
@@ -24,18 +43,141 @@ public class RedisProxyController {
      * @return JSON with occupied seats
      */
     @GetMapping("/seats/{eventId}")
-    public ResponseEntity<String> getSeats(@PathVariable String eventId) {
-        System.out.println("🔵 PROXY: Recibida petición del backend para eventId: " + eventId);
-        
-        String seats = redisProxyService.getSeats(eventId);
-        
+    public ResponseEntity<byte[]> getSeats(@PathVariable String eventId) {
+        byte[] seats = redisProxyService.getSeats(eventId);
+
         if (seats == null) {
-            System.out.println("🔴 PROXY: Respondiendo al backend - No encontrado (404) para eventId: " + eventId);
+            logger.debug("Seat map not found for event {}", eventId);
+            return ResponseEntity.notFound().build();
+        }
+
+        logger.debug("Returning seat map for event {} ({} bytes)", eventId, seats.length);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(seats);
+    }
+
+    /**
+     * Gets a single seat of an event (state and expiry) without returning the whole map
+     * @param eventId Event ID
+     * @param row Seat row
+     * @param col Seat column
+     * @return JSON with the seat; seats not stored in Redis are returned as "libre"
+     */
+    @GetMapping("/seats/{eventId}/{row}/{col}")
+    public ResponseEntity<byte[]> getSeat(@PathVariable String eventId,
+                                          @PathVariable int row,
+                                          @PathVariable int col) {
+        byte[] seat = redisProxyService.getSeat(eventId, row, col);
+
+        if (seat == null) {
             return ResponseEntity.notFound().build();
         }
-        
-        System.out.println("🟢 PROXY: Respondiendo al backend - Datos encontrados para eventId: " + eventId);
-        System.out.println("   Datos: " + seats);
-        return ResponseEntity.ok(seats);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(seat);
+    }
+
+    /**
+     * Holds seats of an event atomically (all or none); requires proxy.seats.layout=hash (501 otherwise)
+     * @param eventId Event ID
+     * @param request Seats to hold (fila, columna) and optional holder token; a new token is generated when omitted
+     * @return 200 with the held seat count and the holder token, or 409 with the conflicting seats ("fila:columna")
+     */
+    @PostMapping("/seats/{eventId}/hold")
+    public ResponseEntity<Map<String, Object>> holdSeats(@PathVariable String eventId,
+                                                         @RequestBody SeatHoldRequest request) {
+        String token = request.getToken() != null && !request.getToken().isBlank()
+                ? request.getToken()
+                : UUID.randomUUID().toString();
+        return seatWrite(eventId, request, token,
+                () -> redisProxyService.holdSeats(eventId, token, request.getAsientos()));
+    }
+
+    /**
+     * Sells seats held with the given token atomically (all or none); requires proxy.seats.layout=hash (501 otherwise)
+     * @param eventId Event ID
+     * @param request Seats to sell (fila, columna) and the holder token
+     * @return 200 with the sold seat count, or 409 with the seats sold, not held or held by another token ("fila:columna")
+     */
+    @PostMapping("/seats/{eventId}/sell")
+    public ResponseEntity<Map<String, Object>> sellSeats(@PathVariable String eventId,
+                                                         @RequestBody SeatHoldRequest request) {
+        return seatWrite(eventId, request, null,
+                () -> redisProxyService.sellSeats(eventId, request.getToken(), request.getAsientos()));
+    }
+
+    /**
+     * Releases seats held with the given token atomically (all or none); requires proxy.seats.layout=hash (501 otherwise)
+     * @param eventId Event ID
+     * @param request Seats to release (fila, columna) and the holder token
+     * @return 200 with the released seat count, or 409 with the seats not held or held by another token ("fila:columna")
+     */
+    @PostMapping("/seats/{eventId}/release")
+    public ResponseEntity<Map<String, Object>> releaseSeats(@PathVariable String eventId,
+                                                            @RequestBody SeatHoldRequest request) {
+        return seatWrite(eventId, request, null,
+                () -> redisProxyService.releaseSeats(eventId, request.getToken(), request.getAsientos()));
+    }
+
+    /**
+     * Copies the JSON seat maps (evento_{id}) into the hash layout; the original keys are kept
+     * @param ids Comma-separated event IDs; all events in Redis when omitted
+     * @return JSON keyed by event ID with the copied seat and hold counts
+     */
+    @PostMapping("/layout/migrate")
+    public ResponseEntity<Map<String, Object>> migrateToHashLayout(@RequestParam(required = false) List<String> ids) {
+        return ResponseEntity.ok(redisProxyService.migrateToHashLayout(ids));
+    }
+
+    /**
+     * Gets held/sold seat counts for many events in one call (single Redis MGET)
+     * @param ids Comma-separated event IDs
+     * @return JSON keyed by event ID with "bloqueados" and "vendidos"; events missing in Redis are omitted
+     */
+    @GetMapping("/seat-counts")
+    public ResponseEntity<Map<String, Map<String, Integer>>> getSeatCounts(@RequestParam List<String> ids) {
+        return ResponseEntity.ok(redisProxyService.getSeatCounts(ids));
+    }
+
+    private ResponseEntity<Map<String, Object>> seatWrite(String eventId,
+                                                         SeatHoldRequest request,
+                                                         String token,
+                                                         Supplier<List<String>> write) {
+        try {
+            List<String> conflicts = write.get();
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("eventoId", eventId);
+            if (!conflicts.isEmpty()) {
+                body.put("conflictos", conflicts);
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(body);
+            }
+            body.put("asientos", request.getAsientos().size());
+            if (token != null) {
+                body.put("token", token);
+            }
+            return ResponseEntity.ok(body);
+        } catch (IllegalArgumentException | IllegalStateException | UnsupportedOperationException e) {
+            return errorResponse(e);
+        }
+    }
+
+    private ResponseEntity<Map<String, Object>> errorResponse(RuntimeException e) {
+        HttpStatus status = e instanceof UnsupportedOperationException ? HttpStatus.NOT_IMPLEMENTED
+                : e instanceof IllegalStateException ? HttpStatus.CONFLICT
+                : HttpStatus.BAD_REQUEST;
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("error", e.getMessage());
+        return ResponseEntity.status(status).body(body);
+    }
+
+    /**
+     * Gets the seat map cache counters (hits, misses, evictions, invalidations)
+     * @return JSON with the cache statistics
+     */
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        return ResponseEntity.ok(seatMapCache.getStats());
     }
-}
+}
\ No newline at end of file
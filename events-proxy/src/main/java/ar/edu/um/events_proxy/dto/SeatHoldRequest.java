@@ -0,0 +1,39 @@
+package ar.edu.um.events_proxy.dto;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Pedido de bloqueo, venta o liberación de asientos (layout "hash")
+ *
+ * El token identifica al titular de los bloqueos: al bloquear es opcional (si no
+ * se envía se genera uno y se devuelve), y para vender o liberar es obligatorio.
+ */
+public class SeatHoldRequest {
+
+    @JsonProperty("token")
+    private String token;
+
+    @JsonProperty("asientos")
+    private List<SeatDTO> asientos;
+
+    public SeatHoldRequest() {
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public void setToken(String token) {
+        this.token = token;
+    }
+
+    public List<SeatDTO> getAsientos() {
+        return asientos;
+    }
+
+    public void setAsientos(List<SeatDTO> asientos) {
+        this.asientos = asientos;
+    }
+}
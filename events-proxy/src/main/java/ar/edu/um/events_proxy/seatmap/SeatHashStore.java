@@ -0,0 +1,334 @@
+package ar.edu.um.events_proxy.seatmap;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ar.edu.um.events_proxy.dto.EventSeatsDTO;
+import ar.edu.um.events_proxy.dto.SeatDTO;
+
+/**
+ * Mapa de asientos guardado como un hash de Redis por evento (layout "hash")
+ *
+ * - {@code evento_{id}:asientos}: un campo {@code fila:columna} por asiento bloqueado o vendido,
+ *   con el JSON del asiento, más el campo {@code eventoId} que marca que el evento existe
+ * - {@code evento_{id}:bloqueo:fila:columna}: un bloqueo vigente, con TTL nativo de Redis
+ *   igual a la ventana de bloqueo ({@code proxy.seats.hold-window-ms}); su valor es el token
+ *   del titular, y solo quien presenta ese token puede vender o liberar el asiento
+ *
+ * Consultar un asiento es un único HMGET, y bloquear, vender o liberar lo hace un
+ * script Lua que verifica y aplica la transición de todos los asientos de forma atómica.
+ * El ID entre llaves hace que las claves de un evento caigan en el mismo slot de un cluster.
+ *
+ * Un campo "bloqueado" cuya clave de bloqueo ya venció se considera libre, con la misma
+ * regla que el layout "blob" ({@link SeatHoldExpiry}); el siguiente bloqueo lo sobrescribe.
+ */
+@Component
+public class SeatHashStore {
+
+    private static final String EVENTO_ID_FIELD = "eventoId";
+    private static final Pattern BLOB_KEY = Pattern.compile("evento_\\d+");
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> HOLD_SCRIPT = RedisScript.of(new ClassPathResource("redis/seat-hold.lua"), List.class);
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> SELL_SCRIPT = RedisScript.of(new ClassPathResource("redis/seat-sell.lua"), List.class);
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> RELEASE_SCRIPT = RedisScript.of(new ClassPathResource("redis/seat-release.lua"), List.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final SeatMapCodec seatMapCodec;
+    private final SeatHoldExpiry seatHoldExpiry;
+    private final ObjectMapper objectMapper;
+
+    public SeatHashStore(StringRedisTemplate redisTemplate,
+                         SeatMapCodec seatMapCodec,
+                         SeatHoldExpiry seatHoldExpiry,
+                         ObjectMapper objectMapper) {
+        this.redisTemplate = redisTemplate;
+        this.seatMapCodec = seatMapCodec;
+        this.seatHoldExpiry = seatHoldExpiry;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Resultado de consultar un único asiento
+     *
+     * @param eventExists Si el evento tiene hash de asientos
+     * @param seatJson JSON guardado del asiento, o null si está libre
+     */
+    public record SeatLookup(boolean eventExists, String seatJson) {
+    }
+
+    /**
+     * Arma el JSON del mapa de asientos ({@code {"eventoId":N,"asientos":[...]}}) desde el hash
+     *
+     * Los asientos se ordenan por fila y columna, así el mismo contenido produce
+     * siempre el mismo JSON y la cache puede reutilizar su decodificación.
+     * @return JSON del mapa, o null si el evento no tiene hash
+     */
+    public String loadJson(String eventId) {
+        Map<Object, Object> entries = redisTemplate.opsForHash().entries(hashKey(eventId));
+        return toJson(entries);
+    }
+
+    /**
+     * Igual que {@link #loadJson(String)} para varios eventos, en un único pipeline de HGETALL
+     *
+     * @return JSON de cada evento en el mismo orden (null si no tiene hash)
+     */
+    public List<String> loadJsonMany(List<String> eventIds) {
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (String eventId : eventIds) {
+                connection.hashCommands().hGetAll(hashKey(eventId).getBytes(StandardCharsets.UTF_8));
+            }
+            return null;
+        });
+
+        List<String> values = new ArrayList<>(eventIds.size());
+        for (Object result : results) {
+            @SuppressWarnings("unchecked")
+            Map<Object, Object> entries = (Map<Object, Object>) result;
+            values.add(toJson(entries));
+        }
+        return values;
+    }
+
+    /**
+     * Consulta un único asiento y la existencia del evento en un solo HMGET
+     */
+    public SeatLookup getSeat(String eventId, int fila, int columna) {
+        List<Object> values = redisTemplate.opsForHash()
+                .multiGet(hashKey(eventId), List.of(EVENTO_ID_FIELD, field(fila, columna)));
+        return new SeatLookup(values.get(0) != null, (String) values.get(1));
+    }
+
+    /**
+     * Bloquea los asientos indicados si ninguno está vendido ni tiene un bloqueo vigente
+     *
+     * @param token Titular de los bloqueos (se guarda como valor de cada clave de bloqueo)
+     * @return Asientos en conflicto ("fila:columna"); vacío si se bloquearon todos
+     */
+    public List<String> hold(String eventId, String token, List<SeatDTO> asientos, long nowMillis) throws Exception {
+        long ttlMillis = seatHoldExpiry.releaseAtMillis(nowMillis) - nowMillis;
+        String expira = Instant.ofEpochMilli(nowMillis).toString();
+
+        List<String> args = new ArrayList<>();
+        args.add(eventId);
+        args.add(String.valueOf(ttlMillis));
+        args.add(token);
+        for (SeatDTO seat : asientos) {
+            args.add(field(seat.getFila(), seat.getColumna()));
+            args.add(seatMapCodec.seatJson(seat.getFila(), seat.getColumna(), "bloqueado", expira));
+        }
+        return conflicts(redisTemplate.execute(HOLD_SCRIPT, keys(eventId, asientos), args.toArray()));
+    }
+
+    /**
+     * Vende los asientos indicados si todos tienen un bloqueo vigente del mismo titular
+     * (y elimina esos bloqueos)
+     *
+     * @param token Titular de los bloqueos
+     * @return Asientos en conflicto ("fila:columna"): vendidos, sin bloqueo o bloqueados
+     *         por otro titular; vacío si se vendieron todos
+     */
+    public List<String> sell(String eventId, String token, List<SeatDTO> asientos) throws Exception {
+        List<String> args = new ArrayList<>();
+        args.add(eventId);
+        args.add(token);
+        for (SeatDTO seat : asientos) {
+            args.add(field(seat.getFila(), seat.getColumna()));
+            args.add(seatMapCodec.seatJson(seat.getFila(), seat.getColumna(), "vendido", null));
+        }
+        return conflicts(redisTemplate.execute(SELL_SCRIPT, keys(eventId, asientos), args.toArray()));
+    }
+
+    /**
+     * Libera los bloqueos de los asientos indicados si todos pertenecen al titular
+     *
+     * @param token Titular de los bloqueos
+     * @return Asientos en conflicto ("fila:columna"): sin bloqueo o bloqueados por otro
+     *         titular; vacío si se liberaron todos
+     */
+    public List<String> release(String eventId, String token, List<SeatDTO> asientos) {
+        List<String> args = new ArrayList<>();
+        args.add(token);
+        asientos.forEach(seat -> args.add(field(seat.getFila(), seat.getColumna())));
+        return conflicts(redisTemplate.execute(RELEASE_SCRIPT, keys(eventId, asientos), args.toArray()));
+    }
+
+    /**
+     * IDs de los eventos guardados con el layout "blob" ({@code evento_{id}})
+     */
+    public List<String> findBlobEventIds() {
+        List<String> eventIds = new ArrayList<>();
+        try (Cursor<String> cursor = redisTemplate.scan(ScanOptions.scanOptions().match("evento_*").count(500).build())) {
+            cursor.forEachRemaining(key -> {
+                if (BLOB_KEY.matcher(key).matches()) {
+                    eventIds.add(key.substring("evento_".length()));
+                }
+            });
+        }
+        return eventIds;
+    }
+
+    /**
+     * Convierte el valor {@code evento_{id}} de un evento al layout "hash"
+     *
+     * Reemplaza el hash y los bloqueos del evento en una transacción (MULTI/EXEC).
+     * Los bloqueos que ya vencieron no se copian; los vigentes conservan el tiempo
+     * que les queda como TTL, con un token aleatorio como titular: ningún cliente puede
+     * venderlos ni liberarlos, y se liberan al vencer. El valor original no se borra.
+     * @return Cantidades copiadas ("asientos", "bloqueos", "bloqueosVencidos"), o null si el evento no existe
+     */
+    public Map<String, Integer> migrate(String eventId, long nowMillis) throws Exception {
+        String value = redisTemplate.opsForValue().get("evento_" + eventId);
+        if (value == null) {
+            return null;
+        }
+
+        EventSeatsDTO eventSeats = objectMapper.readValue(value, EventSeatsDTO.class);
+        List<SeatDTO> asientos = eventSeats.getAsientos() != null ? eventSeats.getAsientos() : List.of();
+
+        Map<String, String> fields = new LinkedHashMap<>();
+        Map<String, Long> holds = new LinkedHashMap<>();
+        fields.put(EVENTO_ID_FIELD, eventId);
+        int expired = 0;
+        for (SeatDTO seat : asientos) {
+            if (seat.getFila() == null || seat.getColumna() == null) {
+                continue;
+            }
+            if (SeatMapCodec.encodeEstado(seat.getEstado()) == SeatMap.ESTADO_BLOQUEADO) {
+                long ttlMillis = -1;
+                if (seat.getExpira() != null) {
+                    ttlMillis = seatHoldExpiry.releaseAtMillis(seatHoldExpiry.toEpochMillis(seat.getExpira())) - nowMillis;
+                    if (ttlMillis <= 0) {
+                        expired++;
+                        continue;
+                    }
+                }
+                holds.put(holdKey(eventId, seat.getFila(), seat.getColumna()), ttlMillis);
+            }
+            fields.put(field(seat.getFila(), seat.getColumna()), objectMapper.writeValueAsString(seat));
+        }
+
+        String migrationToken = UUID.randomUUID().toString();
+        List<String> staleHolds = new ArrayList<>();
+        try (Cursor<String> cursor = redisTemplate.scan(ScanOptions.scanOptions().match(holdKeyPrefix(eventId) + "*").count(500).build())) {
+            cursor.forEachRemaining(staleHolds::add);
+        }
+
+        redisTemplate.execute(new SessionCallback<List<Object>>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> List<Object> execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                ops.multi();
+                ops.delete(hashKey(eventId));
+                if (!staleHolds.isEmpty()) {
+                    ops.delete(staleHolds);
+                }
+                ops.opsForHash().putAll(hashKey(eventId), fields);
+                holds.forEach((key, ttlMillis) -> {
+                    if (ttlMillis > 0) {
+                        ops.opsForValue().set(key, migrationToken, Duration.ofMillis(ttlMillis));
+                    } else {
+                        ops.opsForValue().set(key, migrationToken);
+                    }
+                });
+                return ops.exec();
+            }
+        });
+
+        Map<String, Integer> result = new LinkedHashMap<>();
+        result.put("asientos", fields.size() - 1);
+        result.put("bloqueos", holds.size());
+        result.put("bloqueosVencidos", expired);
+        return result;
+    }
+
+    private String toJson(Map<Object, Object> entries) {
+        if (entries == null || entries.isEmpty()) {
+            return null;
+        }
+        Object eventoId = entries.get(EVENTO_ID_FIELD);
+
+        List<Map.Entry<Object, Object>> seats = new ArrayList<>();
+        for (Map.Entry<Object, Object> entry : entries.entrySet()) {
+            if (!EVENTO_ID_FIELD.equals(entry.getKey())) {
+                seats.add(entry);
+            }
+        }
+        seats.sort(Comparator.comparingLong(entry -> fieldOrder((String) entry.getKey())));
+
+        // Número canónico: un valor inválido falla acá en vez de generar JSON inválido
+        long id = Long.parseLong(String.valueOf(eventoId));
+        StringBuilder json = new StringBuilder("{\"eventoId\":").append(id).append(",\"asientos\":[");
+        for (int i = 0; i < seats.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append(seats.get(i).getValue());
+        }
+        return json.append("]}").toString();
+    }
+
+    private static List<String> keys(String eventId, List<SeatDTO> asientos) {
+        List<String> keys = new ArrayList<>(asientos.size() + 1);
+        keys.add(hashKey(eventId));
+        for (SeatDTO seat : asientos) {
+            keys.add(holdKey(eventId, seat.getFila(), seat.getColumna()));
+        }
+        return keys;
+    }
+
+    private static List<String> conflicts(List<?> result) {
+        List<String> conflicts = new ArrayList<>();
+        if (result != null) {
+            result.forEach(field -> conflicts.add(String.valueOf(field)));
+        }
+        return conflicts;
+    }
+
+    private static String hashKey(String eventId) {
+        return "evento_{" + eventId + "}:asientos";
+    }
+
+    private static String holdKeyPrefix(String eventId) {
+        return "evento_{" + eventId + "}:bloqueo:";
+    }
+
+    private static String holdKey(String eventId, int fila, int columna) {
+        return holdKeyPrefix(eventId) + field(fila, columna);
+    }
+
+    private static String field(int fila, int columna) {
+        return fila + ":" + columna;
+    }
+
+    private static long fieldOrder(String field) {
+        int separator = field.indexOf(':');
+        long fila = Integer.parseInt(field.substring(0, separator));
+        long columna = Integer.parseInt(field.substring(separator + 1));
+        return (fila << 32) | (columna & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,45 @@
+package ar.edu.um.events_proxy.seatmap;
+
+import java.time.ZonedDateTime;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Regla de vencimiento de los bloqueos de asientos
+ *
+ * La fecha {@code expira} se convierte a epoch millis una sola vez, al decodificar
+ * el valor de Redis. En cada petición se compara contra una única lectura del
+ * reloj ({@code long}), sin crear objetos de fecha por asiento.
+ *
+ * Un bloqueo se libera cuando pasó más que la ventana configurada
+ * ({@code proxy.seats.hold-window-ms}, por defecto 5 minutos) desde {@code expira},
+ * con precisión de milisegundos.
+ */
+@Component
+public class SeatHoldExpiry {
+
+    private final long holdWindowMillis;
+
+    public SeatHoldExpiry(@Value("${proxy.seats.hold-window-ms:300000}") long holdWindowMillis) {
+        this.holdWindowMillis = holdWindowMillis;
+    }
+
+    /**
+     * Convierte el campo {@code expira} (ISO 8601 con zona) a epoch millis
+     */
+    public long toEpochMillis(String expira) {
+        return ZonedDateTime.parse(expira).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Primer instante (epoch millis) en el que el bloqueo se considera libre
+     */
+    public long releaseAtMillis(long expiraMillis) {
+        return expiraMillis + holdWindowMillis + 1;
+    }
+
+    public long getHoldWindowMillis() {
+        return holdWindowMillis;
+    }
+}
@@ -0,0 +1,202 @@
+package ar.edu.um.events_proxy.seatmap;
+
+import java.io.ByteArrayOutputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Representación compacta del mapa de asientos de un evento
+ *
+ * Se construye una sola vez por cada versión del valor guardado en Redis
+ * (ver {@link SeatMapCodec}) y guarda:
+ * - Estado de cada asiento empaquetado en un byte por fila/columna
+ * - Expiración de cada asiento en epoch millis (sin objetos de fecha)
+ * - Fragmentos JSON ya serializados de cada asiento, en su versión original
+ *   y en su versión liberada ("libre", sin expira)
+ * - Índice por fila/columna para consultar un único asiento
+ *
+ * Con esto la respuesta se arma concatenando bytes y se reutiliza hasta que
+ * el próximo bloqueo vence, sin volver a parsear ni serializar.
+ */
+public final class SeatMap {
+
+    public static final byte ESTADO_LIBRE = 0;
+    public static final byte ESTADO_BLOQUEADO = 1;
+    public static final byte ESTADO_VENDIDO = 2;
+    public static final byte ESTADO_OTRO = 3;
+
+    /** Marca de "sin expiración" en el arreglo de expiraciones */
+    public static final long SIN_EXPIRACION = Long.MIN_VALUE;
+
+    private final String source;
+
+    private final int[] filas;
+    private final int[] columnas;
+    private final byte[] estados;
+    private final long[] expiraMillis;
+    private final long[] liberaMillis;
+
+    private final byte[] prefix;
+    private final byte[] suffix;
+    private final byte[][] originalFragments;
+    private final byte[][] releasedFragments;
+
+    // Posición de cada asiento en los arreglos, por fila/columna (ver key)
+    private final Map<Long, Integer> indexBySeat;
+
+    private volatile Rendered rendered;
+
+    SeatMap(String source,
+            int[] filas,
+            int[] columnas,
+            byte[] estados,
+            long[] expiraMillis,
+            long[] liberaMillis,
+            byte[] prefix,
+            byte[] suffix,
+            byte[][] originalFragments,
+            byte[][] releasedFragments) {
+        this.source = source;
+        this.filas = filas;
+        this.columnas = columnas;
+        this.estados = estados;
+        this.expiraMillis = expiraMillis;
+        this.liberaMillis = liberaMillis;
+        this.prefix = prefix;
+        this.suffix = suffix;
+        this.originalFragments = originalFragments;
+        this.releasedFragments = releasedFragments;
+        this.indexBySeat = new HashMap<>(filas.length * 2);
+        for (int i = 0; i < filas.length; i++) {
+            indexBySeat.put(key(filas[i], columnas[i]), i);
+        }
+    }
+
+    /**
+     * Valor crudo de Redis a partir del cual se construyó este mapa
+     */
+    public String getSource() {
+        return source;
+    }
+
+    public int size() {
+        return estados.length;
+    }
+
+    public int getFila(int index) {
+        return filas[index];
+    }
+
+    public int getColumna(int index) {
+        return columnas[index];
+    }
+
+    public long getExpiraMillis(int index) {
+        return expiraMillis[index];
+    }
+
+    /**
+     * Posición del asiento en el mapa, o -1 si no figura (asiento libre)
+     */
+    public int indexOf(int fila, int columna) {
+        Integer index = indexBySeat.get(key(fila, columna));
+        return index != null ? index : -1;
+    }
+
+    /**
+     * JSON de un único asiento en el instante indicado (estado y expiración)
+     */
+    public byte[] renderSeat(int index, long nowMillis) {
+        return isReleased(index, nowMillis) ? releasedFragments[index] : originalFragments[index];
+    }
+
+    /**
+     * Estado efectivo del asiento en el instante indicado
+     * (un bloqueo vencido se considera libre)
+     */
+    public byte getEstado(int index, long nowMillis) {
+        return isReleased(index, nowMillis) ? ESTADO_LIBRE : estados[index];
+    }
+
+    /**
+     * Cantidad de asientos por estado efectivo en el instante indicado
+     *
+     * @return Arreglo indexado por ESTADO_LIBRE, ESTADO_BLOQUEADO, ESTADO_VENDIDO y ESTADO_OTRO
+     */
+    public int[] countByEstado(long nowMillis) {
+        int[] counts = new int[4];
+        for (int i = 0; i < estados.length; i++) {
+            counts[getEstado(i, nowMillis)]++;
+        }
+        return counts;
+    }
+
+    /**
+     * JSON del mapa de asientos en el instante indicado
+     *
+     * Devuelve exactamente los mismos bytes que producía la deserialización,
+     * ajuste de expiración y serialización con Jackson.
+     * El resultado se reutiliza mientras ningún otro bloqueo venza.
+     */
+    public byte[] render(long nowMillis) {
+        Rendered current = rendered;
+        if (current != null && nowMillis >= current.fromMillis && nowMillis < current.untilMillis) {
+            return current.json;
+        }
+
+        long until = Long.MAX_VALUE;
+        ByteArrayOutputStream out = new ByteArrayOutputStream(estimateSize());
+        out.writeBytes(prefix);
+        for (int i = 0; i < originalFragments.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            if (isReleased(i, nowMillis)) {
+                out.writeBytes(releasedFragments[i]);
+            } else {
+                out.writeBytes(originalFragments[i]);
+                if (liberaMillis[i] != SIN_EXPIRACION && liberaMillis[i] < until) {
+                    until = liberaMillis[i];
+                }
+            }
+        }
+        out.writeBytes(suffix);
+
+        byte[] json = out.toByteArray();
+        rendered = new Rendered(json, nowMillis, until);
+        return json;
+    }
+
+    private static long key(int fila, int columna) {
+        return ((long) fila << 32) | (columna & 0xFFFFFFFFL);
+    }
+
+    private boolean isReleased(int index, long nowMillis) {
+        long libera = liberaMillis[index];
+        return libera != SIN_EXPIRACION && nowMillis >= libera;
+    }
+
+    private int estimateSize() {
+        Rendered current = rendered;
+        if (current != null) {
+            return current.json.length;
+        }
+        int size = prefix.length + suffix.length + originalFragments.length;
+        for (byte[] fragment : originalFragments) {
+            size += fragment.length;
+        }
+        return size;
+    }
+
+    private static final class Rendered {
+        private final byte[] json;
+        private final long fromMillis;
+        private final long untilMillis;
+
+        private Rendered(byte[] json, long fromMillis, long untilMillis) {
+            this.json = json;
+            this.fromMillis = fromMillis;
+            this.untilMillis = untilMillis;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package ar.edu.um.events_proxy.seatmap;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cache en memoria de mapas de asientos por evento
+ *
+ * - Acotada en cantidad de eventos (se descarta el menos usado recientemente)
+ * - Cada entrada es válida durante un TTL corto: los bloqueos/ventas se escriben
+ *   en Redis sin pasar por Kafka, por lo que el TTL limita cuánto puede tardar
+ *   el proxy en ver esos cambios
+ * - Se invalida por evento cuando llega una notificación de Kafka que lo nombra
+ *
+ * Una entrada vencida se conserva para reutilizar su decodificación si Redis
+ * devuelve el mismo valor (ver {@link #peek(String)}).
+ */
+@Component
+public class SeatMapCache {
+
+    private final int maxEntries;
+    private final long ttlMillis;
+
+    private final Map<String, Entry> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public SeatMapCache(@Value("${proxy.seats.cache.max-entries:500}") int maxEntries,
+                        @Value("${proxy.seats.cache.ttl-ms:1000}") long ttlMillis) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > SeatMapCache.this.maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Devuelve el mapa del evento si se cargó hace menos del TTL
+     *
+     * @return Mapa vigente o null (cuenta como miss)
+     */
+    public SeatMap get(String eventId, long nowMillis) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(eventId);
+        }
+        if (entry != null && nowMillis - entry.loadedAtMillis < ttlMillis) {
+            hits.incrementAndGet();
+            return entry.seatMap;
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Devuelve el último mapa guardado del evento aunque su TTL haya vencido
+     * (no afecta los contadores)
+     */
+    public SeatMap peek(String eventId) {
+        synchronized (entries) {
+            Entry entry = entries.get(eventId);
+            return entry != null ? entry.seatMap : null;
+        }
+    }
+
+    public void put(String eventId, SeatMap seatMap, long nowMillis) {
+        synchronized (entries) {
+            entries.put(eventId, new Entry(seatMap, nowMillis));
+        }
+    }
+
+    public void invalidate(String eventId) {
+        synchronized (entries) {
+            if (entries.remove(eventId) != null) {
+                invalidations.incrementAndGet();
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            invalidations.addAndGet(entries.size());
+            entries.clear();
+        }
+    }
+
+    /**
+     * Contadores para dimensionar la cache
+     */
+    public Map<String, Object> getStats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", size);
+        stats.put("maxEntries", maxEntries);
+        stats.put("ttlMs", ttlMillis);
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        stats.put("evictions", evictions.get());
+        stats.put("invalidations", invalidations.get());
+        return stats;
+    }
+
+    private static final class Entry {
+        private final SeatMap seatMap;
+        private final long loadedAtMillis;
+
+        private Entry(SeatMap seatMap, long loadedAtMillis) {
+            this.seatMap = seatMap;
+            this.loadedAtMillis = loadedAtMillis;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package ar.edu.um.events_proxy.seatmap;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ar.edu.um.events_proxy.dto.EventSeatsDTO;
+import ar.edu.um.events_proxy.dto.SeatDTO;
+
+/**
+ * Convierte el JSON guardado en Redis ({@code evento_{id}}) en un {@link SeatMap}
+ *
+ * El parseo con Jackson y la conversión de las fechas {@code expira} se hacen
+ * una única vez por versión del valor de Redis; a partir de ahí las respuestas
+ * se arman con los fragmentos ya serializados.
+ */
+@Component
+public class SeatMapCodec {
+
+    private static final byte[] SUFFIX = "]}".getBytes(StandardCharsets.UTF_8);
+
+    private final ObjectMapper objectMapper;
+    private final SeatHoldExpiry seatHoldExpiry;
+
+    public SeatMapCodec(ObjectMapper objectMapper, SeatHoldExpiry seatHoldExpiry) {
+        this.objectMapper = objectMapper;
+        this.seatHoldExpiry = seatHoldExpiry;
+    }
+
+    /**
+     * Decodifica el valor de Redis a la representación compacta
+     *
+     * @param value JSON crudo leído de Redis
+     * @return Mapa de asientos listo para responder
+     */
+    public SeatMap decode(String value) throws JsonProcessingException {
+        EventSeatsDTO eventSeats = objectMapper.readValue(value, EventSeatsDTO.class);
+        List<SeatDTO> asientos = eventSeats.getAsientos();
+        if (asientos == null) {
+            throw new IllegalStateException("El evento no contiene lista de asientos");
+        }
+
+        int size = asientos.size();
+        int[] filas = new int[size];
+        int[] columnas = new int[size];
+        byte[] estados = new byte[size];
+        long[] expiraMillis = new long[size];
+        long[] liberaMillis = new long[size];
+        byte[][] originalFragments = new byte[size][];
+        byte[][] releasedFragments = new byte[size][];
+
+        for (int i = 0; i < size; i++) {
+            SeatDTO seat = asientos.get(i);
+            filas[i] = seat.getFila() != null ? seat.getFila() : -1;
+            columnas[i] = seat.getColumna() != null ? seat.getColumna() : -1;
+            estados[i] = encodeEstado(seat.getEstado());
+            originalFragments[i] = utf8(seat);
+
+            if (seat.getExpira() != null) {
+                expiraMillis[i] = seatHoldExpiry.toEpochMillis(seat.getExpira());
+                liberaMillis[i] = seatHoldExpiry.releaseAtMillis(expiraMillis[i]);
+                releasedFragments[i] = utf8(released(seat));
+            } else {
+                expiraMillis[i] = SeatMap.SIN_EXPIRACION;
+                liberaMillis[i] = SeatMap.SIN_EXPIRACION;
+                releasedFragments[i] = originalFragments[i];
+            }
+        }
+
+        return new SeatMap(value, filas, columnas, estados, expiraMillis, liberaMillis,
+                prefix(eventSeats.getEventoId()), SUFFIX, originalFragments, releasedFragments);
+    }
+
+    /**
+     * JSON de un asiento que no figura en Redis (libre, sin expira)
+     */
+    public byte[] freeSeat(int fila, int columna) throws JsonProcessingException {
+        SeatDTO seat = new SeatDTO();
+        seat.setFila(fila);
+        seat.setColumna(columna);
+        seat.setEstado("libre");
+        seat.setExpira(null);
+        return utf8(seat);
+    }
+
+    /**
+     * JSON de un asiento tal como se guarda en el hash del evento (ver {@link SeatHashStore})
+     */
+    public String seatJson(int fila, int columna, String estado, String expira) throws JsonProcessingException {
+        SeatDTO seat = new SeatDTO();
+        seat.setFila(fila);
+        seat.setColumna(columna);
+        seat.setEstado(estado);
+        seat.setExpira(expira);
+        return objectMapper.writeValueAsString(seat);
+    }
+
+    /**
+     * JSON de un asiento guardado en el hash del evento, en el instante indicado
+     * (un bloqueo vencido se devuelve como "libre", igual que en {@link SeatMap#renderSeat})
+     */
+    public byte[] renderSeat(String seatJson, long nowMillis) throws JsonProcessingException {
+        SeatDTO seat = objectMapper.readValue(seatJson, SeatDTO.class);
+        if (seat.getExpira() != null
+                && nowMillis >= seatHoldExpiry.releaseAtMillis(seatHoldExpiry.toEpochMillis(seat.getExpira()))) {
+            return utf8(released(seat));
+        }
+        return utf8(seat);
+    }
+
+    /**
+     * Estado empaquetado a partir del texto guardado en Redis
+     */
+    public static byte encodeEstado(String estado) {
+        if (estado == null) {
+            return SeatMap.ESTADO_OTRO;
+        }
+        if (estado.equalsIgnoreCase("libre")) {
+            return SeatMap.ESTADO_LIBRE;
+        }
+        if (estado.equalsIgnoreCase("bloqueado")) {
+            return SeatMap.ESTADO_BLOQUEADO;
+        }
+        if (estado.equalsIgnoreCase("vendido")) {
+            return SeatMap.ESTADO_VENDIDO;
+        }
+        return SeatMap.ESTADO_OTRO;
+    }
+
+    /**
+     * Inicio del JSON ({@code {"eventoId":N,"asientos":[}) generado con el mismo
+     * ObjectMapper para respetar el orden y formato de las propiedades
+     */
+    private byte[] prefix(Integer eventoId) throws JsonProcessingException {
+        EventSeatsDTO empty = new EventSeatsDTO();
+        empty.setEventoId(eventoId);
+        empty.setAsientos(Collections.emptyList());
+        byte[] json = utf8(empty);
+        return Arrays.copyOf(json, json.length - SUFFIX.length);
+    }
+
+    /**
+     * JSON en UTF-8 pasando por {@code writeValueAsString}, como la respuesta anterior:
+     * {@code writeValueAsBytes} escapa los caracteres fuera del plano básico (emojis)
+     * como secuencias de escape y los bytes no coincidirían
+     */
+    private byte[] utf8(Object value) throws JsonProcessingException {
+        return objectMapper.writeValueAsString(value).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static SeatDTO released(SeatDTO seat) {
+        SeatDTO copy = new SeatDTO();
+        copy.setFila(seat.getFila());
+        copy.setColumna(seat.getColumna());
+        copy.setEstado("libre");
+        copy.setExpira(null);
+        return copy;
+    }
+}
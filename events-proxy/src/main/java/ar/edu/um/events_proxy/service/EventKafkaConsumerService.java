@@ -7,8 +7,12 @@ import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 
+import ar.edu.um.events_proxy.config.UpstreamHttpClients;
+import ar.edu.um.events_proxy.seatmap.SeatMapCache;
+
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Set;
 
 @Service
 public class EventKafkaConsumerService {
@@ -16,6 +20,8 @@ public class EventKafkaConsumerService {
     private static final Logger logger = LoggerFactory.getLogger(EventKafkaConsumerService.class);
     
     private final WebClient webClient;
+    private final EventUpdateMessageParser messageParser;
+    private final SeatMapCache seatMapCache;
     
     @Value("${backend.base-url}")
     private String backendBaseUrl;
@@ -23,13 +29,20 @@ public class EventKafkaConsumerService {
     @Value("${backend.sync-endpoint}")
     private String syncEndpoint;
 
-    public EventKafkaConsumerService(WebClient.Builder webClientBuilder) {
-        this.webClient = webClientBuilder.build();
+    public EventKafkaConsumerService(WebClient.Builder webClientBuilder,
+                                     UpstreamHttpClients upstreamHttpClients,
+                                     EventUpdateMessageParser messageParser,
+                                     SeatMapCache seatMapCache) {
+        this.webClient = upstreamHttpClients.configure(webClientBuilder, "backend").build();
+        this.messageParser = messageParser;
+        this.seatMapCache = seatMapCache;
     }
 
     /**
      * Listens to Kafka messages about event changes.
-     * When a message arrives, notifies the backend to sync its local database.
+     * When a message arrives, drops the cached seat maps of the events it names
+     * (all of them if the message cannot be parsed) and notifies the backend
+     * to sync its local database.
      * 
      * @param message The JSON message received from Kafka
      */
@@ -46,6 +59,8 @@ public class EventKafkaConsumerService {
         logger.info("║ Message Content: {}", message);
         logger.info("╚════════════════════════════════════════════════════════════════");
         
+        invalidateSeatMaps(message);
+        
         try {
             String fullUrl = backendBaseUrl + syncEndpoint;
             logger.info("→ Sending notification to backend: {}", fullUrl);
@@ -81,4 +96,17 @@ public class EventKafkaConsumerService {
             logger.error("Full stack trace:", e);
         }
     }
+
+    private void invalidateSeatMaps(String message) {
+        Set<Long> eventIds = messageParser.parseEventIds(message);
+        if (eventIds.isEmpty()) {
+            logger.info("→ Could not identify events in message, clearing seat map cache");
+            seatMapCache.invalidateAll();
+            return;
+        }
+        for (Long eventId : eventIds) {
+            seatMapCache.invalidate(String.valueOf(eventId));
+        }
+        logger.info("→ Seat map cache invalidated for events: {}", eventIds);
+    }
 }
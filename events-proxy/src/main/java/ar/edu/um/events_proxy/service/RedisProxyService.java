@@ -1,61 +1,324 @@
 package ar.edu.um.events_proxy.service;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import ar.edu.um.events_proxy.dto.EventSeatsDTO;
 import ar.edu.um.events_proxy.dto.SeatDTO;
+import ar.edu.um.events_proxy.seatmap.SeatHashStore;
+import ar.edu.um.events_proxy.seatmap.SeatMap;
+import ar.edu.um.events_proxy.seatmap.SeatMapCache;
+import ar.edu.um.events_proxy.seatmap.SeatMapCodec;
 
-import java.time.ZonedDateTime;
-import java.time.ZoneId;
-import java.time.temporal.ChronoUnit;
-
+/**
+ * Lectura y escritura del mapa de asientos en Redis
+ *
+ * El layout se elige con {@code proxy.seats.layout}:
+ * - "blob" (por defecto): un JSON por evento en {@code evento_{id}}, escrito por el servicio externo
+ * - "hash": un hash por evento con bloqueos por TTL nativo ({@link SeatHashStore}); permite
+ *   consultar un asiento y bloquear/vender/liberar asientos sin leer el mapa completo
+ *
+ * Con el layout "hash" el proxy solo ve los cambios que llegan por sus endpoints de
+ * bloqueo/venta/liberación: lo que se siga escribiendo en {@code evento_{id}} no se
+ * refleja en el hash migrado. Por eso no arranca con "hash" salvo que se confirme con
+ * {@code proxy.seats.hash-layout.writers-migrated=true} que todos los escritores ya usan
+ * esos endpoints. No se vuelve a migrar el evento al recibir novedades por Kafka: los
+ * cambios de asientos no llegan por ese canal y la migración pisaría los bloqueos con token.
+ */
 @Service
 public class RedisProxyService {
 
     private final StringRedisTemplate redisTemplate;
-    private final ObjectMapper objectMapper;
+    private final SeatMapCodec seatMapCodec;
+    private final SeatMapCache seatMapCache;
+    private final SeatHashStore seatHashStore;
+    private final boolean hashLayout;
 
-    public RedisProxyService(StringRedisTemplate redisTemplate, ObjectMapper objectMapper) {
+    public RedisProxyService(StringRedisTemplate redisTemplate,
+                             SeatMapCodec seatMapCodec,
+                             SeatMapCache seatMapCache,
+                             SeatHashStore seatHashStore,
+                             @Value("${proxy.seats.layout:blob}") String layout,
+                             @Value("${proxy.seats.hash-layout.writers-migrated:false}") boolean writersMigrated) {
         this.redisTemplate = redisTemplate;
-        this.objectMapper = objectMapper;
+        this.seatMapCodec = seatMapCodec;
+        this.seatMapCache = seatMapCache;
+        this.seatHashStore = seatHashStore;
+        this.hashLayout = "hash".equalsIgnoreCase(layout);
+        if (hashLayout && !writersMigrated) {
+            throw new IllegalStateException("proxy.seats.layout=hash requiere proxy.seats.hash-layout.writers-migrated=true:"
+                    + " los cambios escritos en evento_{id} no se reflejan en el layout hash");
+        }
     }
 
     /**
      * Obtiene los asientos bloqueados/vendidos de un evento desde Redis
+     *
+     * Mientras la entrada de cache del evento esté vigente no se consulta Redis.
      * @param eventId ID del evento
-     * @return JSON con los asientos ocupados, o null si no existe
+     * @return JSON (UTF-8) con los asientos ocupados, o null si no existe
      */
-  public String getSeats(String eventId) {
-    try {
-        String key = "evento_" + eventId;
-        String value = redisTemplate.opsForValue().get(key);
-        
-        if (value == null) {
-            return null;
+    public byte[] getSeats(String eventId) {
+        try {
+            long now = System.currentTimeMillis();
+            SeatMap seatMap = getSeatMap(eventId, now);
+            return seatMap != null ? seatMap.render(now) : null;
+        } catch (Exception e) {
+            throw new RuntimeException("Error al leer datos de Redis", e);
+        }
+    }
+
+    /**
+     * Obtiene el estado de un único asiento de un evento
+     *
+     * Con el layout "hash" se lee solo ese campo del hash del evento; con el layout
+     * "blob" se busca en el índice por fila/columna del mapa en cache.
+     * Un asiento que no figura en Redis está libre.
+     * @param eventId ID del evento
+     * @param fila Fila del asiento
+     * @param columna Columna del asiento
+     * @return JSON (UTF-8) con el estado y la expiración del asiento, o null si el evento no existe
+     */
+    public byte[] getSeat(String eventId, int fila, int columna) {
+        try {
+            long now = System.currentTimeMillis();
+            if (hashLayout) {
+                SeatHashStore.SeatLookup seat = seatHashStore.getSeat(eventId, fila, columna);
+                if (!seat.eventExists()) {
+                    return null;
+                }
+                return seat.seatJson() != null
+                        ? seatMapCodec.renderSeat(seat.seatJson(), now)
+                        : seatMapCodec.freeSeat(fila, columna);
+            }
+
+            SeatMap seatMap = getSeatMap(eventId, now);
+            if (seatMap == null) {
+                return null;
+            }
+            int index = seatMap.indexOf(fila, columna);
+            return index >= 0 ? seatMap.renderSeat(index, now) : seatMapCodec.freeSeat(fila, columna);
+        } catch (Exception e) {
+            throw new RuntimeException("Error al leer datos de Redis", e);
+        }
+    }
+
+    /**
+     * Mapa de asientos del evento desde la cache, o desde Redis si no está vigente
+     */
+    private SeatMap getSeatMap(String eventId, long now) throws Exception {
+        SeatMap seatMap = seatMapCache.get(eventId, now);
+        return seatMap != null ? seatMap : loadSeatMap(eventId, now);
+    }
+
+    /**
+     * Cantidad de asientos bloqueados y vendidos de varios eventos
+     *
+     * Los eventos sin mapa vigente en cache se leen de Redis con un único MGET
+     * (o un único pipeline de HGETALL con el layout "hash").
+     * @param eventIds IDs de los eventos
+     * @return Por evento: {"bloqueados": n, "vendidos": m}; los eventos sin datos en Redis no se incluyen
+     */
+    public Map<String, Map<String, Integer>> getSeatCounts(List<String> eventIds) {
+        try {
+            long now = System.currentTimeMillis();
+            Map<String, SeatMap> seatMaps = new LinkedHashMap<>();
+            List<String> missing = new ArrayList<>();
+            for (String eventId : eventIds) {
+                SeatMap cached = seatMapCache.get(eventId, now);
+                if (cached != null) {
+                    seatMaps.put(eventId, cached);
+                } else {
+                    missing.add(eventId);
+                }
+            }
+
+            if (!missing.isEmpty()) {
+                List<String> values;
+                if (hashLayout) {
+                    values = seatHashStore.loadJsonMany(missing);
+                } else {
+                    List<String> keys = missing.stream().map(id -> "evento_" + id).collect(Collectors.toList());
+                    values = redisTemplate.opsForValue().multiGet(keys);
+                }
+                for (int i = 0; i < missing.size(); i++) {
+                    String value = values != null ? values.get(i) : null;
+                    SeatMap seatMap = toSeatMap(missing.get(i), value, now);
+                    if (seatMap != null) {
+                        seatMaps.put(missing.get(i), seatMap);
+                    }
+                }
+            }
+
+            Map<String, Map<String, Integer>> counts = new LinkedHashMap<>();
+            seatMaps.forEach((eventId, seatMap) -> {
+                int[] byEstado = seatMap.countByEstado(now);
+                Map<String, Integer> eventCounts = new LinkedHashMap<>();
+                eventCounts.put("bloqueados", byEstado[SeatMap.ESTADO_BLOQUEADO]);
+                eventCounts.put("vendidos", byEstado[SeatMap.ESTADO_VENDIDO]);
+                counts.put(eventId, eventCounts);
+            });
+            return counts;
+        } catch (Exception e) {
+            throw new RuntimeException("Error al leer datos de Redis", e);
+        }
+    }
+
+    /**
+     * Lee el valor de Redis y lo decodifica solo si cambió respecto del último guardado
+     */
+    private SeatMap loadSeatMap(String eventId, long now) throws Exception {
+        String value = hashLayout
+                ? seatHashStore.loadJson(eventId)
+                : redisTemplate.opsForValue().get("evento_" + eventId);
+        return toSeatMap(eventId, value, now);
+    }
+
+    /**
+     * Bloquea asientos de un evento (layout "hash"): todos o ninguno
+     *
+     * @param token Titular de los bloqueos; se necesita para venderlos o liberarlos
+     * @return Asientos en conflicto ("fila:columna"); vacío si se bloquearon todos
+     */
+    public List<String> holdSeats(String eventId, String token, List<SeatDTO> asientos) {
+        requireHashLayout();
+        requireEventId(eventId);
+        requireToken(token);
+        validate(asientos);
+        try {
+            return seatHashStore.hold(eventId, token, asientos, System.currentTimeMillis());
+        } catch (Exception e) {
+            throw new RuntimeException("Error al bloquear asientos en Redis", e);
+        } finally {
+            seatMapCache.invalidate(eventId);
+        }
+    }
+
+    /**
+     * Vende asientos bloqueados por el titular del token (layout "hash"): todos o ninguno
+     *
+     * @return Asientos en conflicto ("fila:columna"); vacío si se vendieron todos
+     */
+    public List<String> sellSeats(String eventId, String token, List<SeatDTO> asientos) {
+        requireHashLayout();
+        requireEventId(eventId);
+        requireToken(token);
+        validate(asientos);
+        try {
+            return seatHashStore.sell(eventId, token, asientos);
+        } catch (Exception e) {
+            throw new RuntimeException("Error al vender asientos en Redis", e);
+        } finally {
+            seatMapCache.invalidate(eventId);
         }
-        
-        EventSeatsDTO eventSeats = objectMapper.readValue(value, EventSeatsDTO.class);
-        
-        ZonedDateTime now = ZonedDateTime.now(ZoneId.of("UTC"));
-        
-        for (SeatDTO seat : eventSeats.getAsientos()) {
-            if (seat.getExpira() != null) {
-                ZonedDateTime expiraTime = ZonedDateTime.parse(seat.getExpira());
-                
-                long minutesPassed = ChronoUnit.MINUTES.between(expiraTime, now);
-                
-                if (minutesPassed > 5) {
-                    seat.setEstado("libre");
-                    seat.setExpira(null);
+    }
+
+    /**
+     * Libera bloqueos del titular del token (layout "hash"): todos o ninguno
+     *
+     * @return Asientos en conflicto ("fila:columna"); vacío si se liberaron todos
+     */
+    public List<String> releaseSeats(String eventId, String token, List<SeatDTO> asientos) {
+        requireHashLayout();
+        requireEventId(eventId);
+        requireToken(token);
+        validate(asientos);
+        try {
+            return seatHashStore.release(eventId, token, asientos);
+        } catch (Exception e) {
+            throw new RuntimeException("Error al liberar asientos en Redis", e);
+        } finally {
+            seatMapCache.invalidate(eventId);
+        }
+    }
+
+    /**
+     * Copia los mapas guardados como JSON ({@code evento_{id}}) al layout "hash"
+     *
+     * Se puede ejecutar con cualquier layout activo, antes de cambiar a "hash".
+     * @param eventIds Eventos a migrar; vacío o null para todos los que hay en Redis
+     * @return Por evento: cantidades copiadas, o "no encontrado"
+     */
+    public Map<String, Object> migrateToHashLayout(List<String> eventIds) {
+        try {
+            List<String> ids = eventIds == null || eventIds.isEmpty() ? seatHashStore.findBlobEventIds() : eventIds;
+            Map<String, Object> result = new LinkedHashMap<>();
+            for (String eventId : ids) {
+                if (!isEventId(eventId)) {
+                    result.put(eventId, "ID inválido");
+                    continue;
                 }
+                Map<String, Integer> migrated = seatHashStore.migrate(eventId, System.currentTimeMillis());
+                result.put(eventId, migrated != null ? migrated : "no encontrado");
+                seatMapCache.invalidate(eventId);
             }
+            return result;
+        } catch (Exception e) {
+            throw new RuntimeException("Error al migrar asientos al layout hash", e);
+        }
+    }
+
+    private void requireHashLayout() {
+        if (!hashLayout) {
+            throw new UnsupportedOperationException("Operación disponible solo con proxy.seats.layout=hash");
+        }
+    }
+
+    /**
+     * El ID se guarda en el hash y se escribe tal cual en el JSON del mapa: debe ser un
+     * número entero en su forma canónica (sin ceros a la izquierda ni espacios)
+     */
+    private static void requireEventId(String eventId) {
+        if (!isEventId(eventId)) {
+            throw new IllegalArgumentException("ID de evento inválido: " + eventId);
+        }
+    }
+
+    private static boolean isEventId(String eventId) {
+        try {
+            return eventId != null && Long.toString(Long.parseLong(eventId)).equals(eventId);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static void requireToken(String token) {
+        if (token == null || token.isBlank()) {
+            throw new IllegalArgumentException("Debe indicar el token del titular de los bloqueos");
+        }
+    }
+
+    private static void validate(List<SeatDTO> asientos) {
+        if (asientos == null || asientos.isEmpty()) {
+            throw new IllegalArgumentException("Debe indicar al menos un asiento");
+        }
+        for (SeatDTO seat : asientos) {
+            if (seat.getFila() == null || seat.getColumna() == null) {
+                throw new IllegalArgumentException("Cada asiento debe indicar fila y columna");
+            }
+        }
+    }
+
+    /**
+     * Decodifica (si cambió) y guarda en cache el valor leído de Redis
+     */
+    private SeatMap toSeatMap(String eventId, String value, long now) throws Exception {
+        if (value == null) {
+            seatMapCache.invalidate(eventId);
+            return null;
+        }
+
+        SeatMap seatMap = seatMapCache.peek(eventId);
+        if (seatMap == null || !seatMap.getSource().equals(value)) {
+            seatMap = seatMapCodec.decode(value);
         }
-        
-        return objectMapper.writeValueAsString(eventSeats);
-    } catch (Exception e) {
-        throw new RuntimeException("Error al leer datos de Redis", e);
+        seatMapCache.put(eventId, seatMap, now);
+        return seatMap;
     }
 }
-}
\ No newline at end of file
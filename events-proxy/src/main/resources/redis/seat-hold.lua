@@ -0,0 +1,26 @@
+-- Bloqueo atómico de asientos: se bloquean todos o ninguno
+-- KEYS[1]: hash de asientos del evento; KEYS[2..n]: clave de bloqueo de cada asiento
+-- ARGV[1]: ID del evento; ARGV[2]: duración del bloqueo (ms); ARGV[3]: token del titular
+-- ARGV[4..]: por cada asiento, campo "fila:columna" y JSON del asiento bloqueado
+-- El token queda como valor de la clave de bloqueo: solo su titular puede vender o liberar
+-- Devuelve los campos en conflicto (vendidos o con un bloqueo vigente); vacío si se bloqueó
+local conflicts = {}
+for i = 2, #KEYS do
+    local field = ARGV[2 * i]
+    local current = redis.call('HGET', KEYS[1], field)
+    if current and string.lower(cjson.decode(current).estado or '') == 'vendido' then
+        table.insert(conflicts, field)
+    elseif redis.call('EXISTS', KEYS[i]) == 1 then
+        table.insert(conflicts, field)
+    end
+end
+if #conflicts > 0 then
+    return conflicts
+end
+
+redis.call('HSET', KEYS[1], 'eventoId', ARGV[1])
+for i = 2, #KEYS do
+    redis.call('SET', KEYS[i], ARGV[3], 'PX', ARGV[2])
+    redis.call('HSET', KEYS[1], ARGV[2 * i], ARGV[2 * i + 1])
+end
+return conflicts
@@ -0,0 +1,24 @@
+-- Liberación atómica de bloqueos: se liberan todos o ninguno
+-- KEYS[1]: hash de asientos del evento; KEYS[2..n]: clave de bloqueo de cada asiento
+-- ARGV[1]: token del titular de los bloqueos; ARGV[2..]: campo "fila:columna" de cada asiento
+-- Cada asiento debe tener un bloqueo vigente con el mismo token (los vendidos no se modifican)
+-- Devuelve los campos en conflicto (sin bloqueo o bloqueados por otro); vacío si se liberó
+local conflicts = {}
+for i = 2, #KEYS do
+    if redis.call('GET', KEYS[i]) ~= ARGV[1] then
+        table.insert(conflicts, ARGV[i])
+    end
+end
+if #conflicts > 0 then
+    return conflicts
+end
+
+for i = 2, #KEYS do
+    local field = ARGV[i]
+    local current = redis.call('HGET', KEYS[1], field)
+    if current and string.lower(cjson.decode(current).estado or '') == 'bloqueado' then
+        redis.call('HDEL', KEYS[1], field)
+    end
+    redis.call('DEL', KEYS[i])
+end
+return conflicts
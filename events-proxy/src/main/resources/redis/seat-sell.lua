@@ -0,0 +1,26 @@
+-- Venta atómica de asientos: se venden todos o ninguno
+-- KEYS[1]: hash de asientos del evento; KEYS[2..n]: clave de bloqueo de cada asiento
+-- ARGV[1]: ID del evento; ARGV[2]: token del titular de los bloqueos
+-- ARGV[3..]: por cada asiento, campo "fila:columna" y JSON del asiento vendido
+-- Cada asiento debe tener un bloqueo vigente con el mismo token
+-- Devuelve los campos en conflicto (vendidos, sin bloqueo o bloqueados por otro); vacío si se vendió
+local conflicts = {}
+for i = 2, #KEYS do
+    local field = ARGV[2 * i - 1]
+    local current = redis.call('HGET', KEYS[1], field)
+    if current and string.lower(cjson.decode(current).estado or '') == 'vendido' then
+        table.insert(conflicts, field)
+    elseif redis.call('GET', KEYS[i]) ~= ARGV[2] then
+        table.insert(conflicts, field)
+    end
+end
+if #conflicts > 0 then
+    return conflicts
+end
+
+redis.call('HSET', KEYS[1], 'eventoId', ARGV[1])
+for i = 2, #KEYS do
+    redis.call('DEL', KEYS[i])
+    redis.call('HSET', KEYS[1], ARGV[2 * i - 1], ARGV[2 * i])
+end
+return conflicts
@@ -0,0 +1,99 @@
+package ar.edu.um.events_proxy.auth;
+
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.SecretKey;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+
+/**
+ * Costo de validar el token de una petición en {@link JwtAuthFilter}
+ *
+ * - perCallParser: camino anterior, clave y parser nuevos en cada llamada y el token parseado dos veces
+ * - reusedParser: {@link JwtService#validateToken} con clave y parser construidos una sola vez
+ * - cacheHit: token ya verificado, solo el SHA-256 y la búsqueda en {@link VerifiedTokenCache}
+ *
+ * Ejecutar con {@code mvn -B test-compile} y luego
+ * {@code java -cp target/test-classes:target/classes:<classpath de test> org.openjdk.jmh.Main JwtAuthBenchmark},
+ * o con el método main desde el IDE.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthBenchmark {
+
+    private static final String SECRET = Base64.getEncoder()
+            .encodeToString("clave-de-benchmark-de-al-menos-32-bytes".getBytes());
+
+    private JwtService jwtService;
+    private VerifiedTokenCache verifiedTokenCache;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        SecretKey key = Keys.hmacShaKeyFor(Base64.getDecoder().decode(SECRET));
+        token = Jwts.builder()
+                .subject("backend")
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(24)))
+                .signWith(key)
+                .compact();
+
+        jwtService = new JwtService(SECRET);
+        verifiedTokenCache = new VerifiedTokenCache(10000);
+        verifiedTokenCache.put(token, System.currentTimeMillis() + TimeUnit.HOURS.toMillis(24), System.currentTimeMillis());
+    }
+
+    @Benchmark
+    public boolean perCallParser() {
+        try {
+            perCallClaims(token);
+            return !perCallClaims(token).getExpiration().before(new Date());
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    @Benchmark
+    public boolean reusedParser() {
+        return jwtService.validateToken(token).isPresent();
+    }
+
+    @Benchmark
+    public boolean cacheHit() {
+        return verifiedTokenCache.isVerified(token, System.currentTimeMillis());
+    }
+
+    private static Claims perCallClaims(String token) {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(Base64.getDecoder().decode(SECRET)))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JwtAuthBenchmark.class.getSimpleName()).build()).run();
+    }
+}
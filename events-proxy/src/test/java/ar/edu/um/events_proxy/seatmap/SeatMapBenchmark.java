@@ -0,0 +1,138 @@
+package ar.edu.um.events_proxy.seatmap;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ar.edu.um.events_proxy.dto.EventSeatsDTO;
+import ar.edu.um.events_proxy.dto.SeatDTO;
+
+/**
+ * Costo por petición del mapa de asientos: camino anterior contra {@link SeatMap}
+ *
+ * - legacy: readValue, ZonedDateTime.parse y MINUTES.between por asiento, writeValueAsString
+ * - render: respuesta ya armada, reutilizada mientras no vence ningún bloqueo
+ * - renderAfterExpiry: se rearma en cada llamada (el reloj cruza un vencimiento)
+ * - countByEstado: evaluación de vencimientos sin armar JSON (una lectura del reloj)
+ * - decode: costo por cada versión nueva del valor de Redis
+ *
+ * Ejecutar con {@code mvn -B test-compile} y luego
+ * {@code java -cp target/test-classes:target/classes:<classpath de test> org.openjdk.jmh.Main SeatMapBenchmark},
+ * o con el método main desde el IDE.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SeatMapBenchmark {
+
+    private static final long NOW = Instant.parse("2026-10-18T12:00:00Z").toEpochMilli();
+
+    @Param({"10000"})
+    private int seats;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final SeatMapCodec codec = new SeatMapCodec(objectMapper, new SeatHoldExpiry(300000));
+
+    private String value;
+    private SeatMap seatMap;
+    private long nextReleaseMillis;
+    private boolean afterRelease;
+
+    @Setup
+    public void setUp() throws Exception {
+        List<SeatDTO> asientos = new ArrayList<>(seats);
+        int columnas = 100;
+        for (int i = 0; i < seats; i++) {
+            SeatDTO seat = new SeatDTO();
+            seat.setFila(i / columnas + 1);
+            seat.setColumna(i % columnas + 1);
+            switch (i % 3) {
+                case 0 -> seat.setEstado("Vendido");
+                case 1 -> {
+                    // Bloqueos vigentes, con vencimientos escalonados
+                    seat.setEstado("Bloqueado");
+                    seat.setExpira(Instant.ofEpochMilli(NOW - 60_000 + i).toString());
+                }
+                default -> {
+                    // Bloqueos vencidos hace más de 5 minutos
+                    seat.setEstado("Bloqueado");
+                    seat.setExpira(Instant.ofEpochMilli(NOW - 600_000 - i).toString());
+                }
+            }
+            asientos.add(seat);
+        }
+        EventSeatsDTO eventSeats = new EventSeatsDTO();
+        eventSeats.setEventoId(1);
+        eventSeats.setAsientos(asientos);
+
+        value = objectMapper.writeValueAsString(eventSeats);
+        seatMap = codec.decode(value);
+        nextReleaseMillis = NOW - 60_000 + 1 + 300_000 + 1;
+    }
+
+    @Benchmark
+    public String legacy() throws Exception {
+        EventSeatsDTO eventSeats = objectMapper.readValue(value, EventSeatsDTO.class);
+        ZonedDateTime now = ZonedDateTime.now(ZoneId.of("UTC"));
+        for (SeatDTO seat : eventSeats.getAsientos()) {
+            if (seat.getExpira() != null) {
+                ZonedDateTime expiraTime = ZonedDateTime.parse(seat.getExpira());
+                if (ChronoUnit.MINUTES.between(expiraTime, now) > 5) {
+                    seat.setEstado("libre");
+                    seat.setExpira(null);
+                }
+            }
+        }
+        return objectMapper.writeValueAsString(eventSeats);
+    }
+
+    @Benchmark
+    public byte[] render() {
+        return seatMap.render(NOW);
+    }
+
+    @Benchmark
+    public byte[] renderAfterExpiry() {
+        afterRelease = !afterRelease;
+        return seatMap.render(afterRelease ? nextReleaseMillis : NOW);
+    }
+
+    @Benchmark
+    public int[] countByEstado() {
+        return seatMap.countByEstado(System.currentTimeMillis());
+    }
+
+    @Benchmark
+    public SeatMap decode() throws Exception {
+        return codec.decode(value);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(SeatMapBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,95 @@
+package ar.edu.um.events_proxy.seatmap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ar.edu.um.events_proxy.dto.EventSeatsDTO;
+import ar.edu.um.events_proxy.dto.SeatDTO;
+
+/**
+ * La respuesta armada con {@link SeatMap#render} debe ser idéntica, byte a byte, a la del
+ * camino anterior (readValue, liberar bloqueos vencidos, writeValueAsString)
+ *
+ * Los bloqueos usados están lejos del minuto 5 a 6 después de {@code expira}: en ese
+ * intervalo la regla anterior (minutos enteros) y la actual (milisegundos, ver
+ * {@link SeatHoldExpiry}) difieren a propósito.
+ */
+class SeatMapCodecTest {
+
+    private static final long NOW = Instant.parse("2026-10-18T12:00:00Z").toEpochMilli();
+
+    private static final String SEATS = """
+            {"eventoId":7,"asientos":[
+              {"fila":1,"columna":1,"estado":"Libre"},
+              {"fila":1,"columna":2,"estado":"Vendido"},
+              {"fila":1,"columna":3,"estado":"Bloqueado","expira":"2026-10-18T11:58:00Z"},
+              {"fila":1,"columna":4,"estado":"Bloqueado","expira":"2026-10-18T12:03:30.250Z"},
+              {"fila":2,"columna":1,"estado":"Bloqueado","expira":"2026-10-18T11:50:00Z"},
+              {"fila":2,"columna":2,"estado":"Bloqueado","expira":"2026-10-18T08:40:00-03:00"},
+              {"fila":2,"columna":3,"estado":"Vendido","expira":"2026-10-18T11:00:00Z"},
+              {"columna":4,"estado":"Bloqueado","expira":"2026-10-18T11:59:00Z"},
+              {"fila":3,"estado":"Vendido"},
+              {"fila":3,"columna":5,"estado":"Reservado ñandú — 席 🎟","desconocido":true},
+              {"fila":3,"columna":6}
+            ]}""";
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final SeatMapCodec codec = new SeatMapCodec(objectMapper, new SeatHoldExpiry(300000));
+
+    @Test
+    void renderMatchesLegacyOutput() throws Exception {
+        SeatMap seatMap = codec.decode(SEATS);
+
+        assertEquals(legacy(SEATS, NOW), render(seatMap, NOW));
+    }
+
+    @Test
+    void renderMatchesLegacyOutputAfterHoldsExpire() throws Exception {
+        SeatMap seatMap = codec.decode(SEATS);
+        long later = NOW + 20 * 60_000;
+
+        // La primera respuesta queda guardada; la siguiente debe rearmarse al vencer los bloqueos
+        assertEquals(legacy(SEATS, NOW), render(seatMap, NOW));
+        assertEquals(legacy(SEATS, later), render(seatMap, later));
+    }
+
+    @Test
+    void renderMatchesLegacyOutputForEmptyMap() throws Exception {
+        String empty = "{\"eventoId\":8,\"asientos\":[]}";
+
+        assertEquals(legacy(empty, NOW), render(codec.decode(empty), NOW));
+    }
+
+    private static String render(SeatMap seatMap, long nowMillis) {
+        return new String(seatMap.render(nowMillis), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Camino anterior de RedisProxyService.getSeats, con el reloj fijo
+     */
+    private String legacy(String value, long nowMillis) throws Exception {
+        EventSeatsDTO eventSeats = objectMapper.readValue(value, EventSeatsDTO.class);
+        ZonedDateTime now = Instant.ofEpochMilli(nowMillis).atZone(ZoneId.of("UTC"));
+        for (SeatDTO seat : eventSeats.getAsientos()) {
+            if (seat.getExpira() != null) {
+                ZonedDateTime expiraTime = ZonedDateTime.parse(seat.getExpira());
+                long minutesPassed = ChronoUnit.MINUTES.between(expiraTime, now);
+                if (minutesPassed > 5) {
+                    seat.setEstado("libre");
+                    seat.setExpira(null);
+                }
+            }
+        }
+        return objectMapper.writeValueAsString(eventSeats);
+    }
+}
@@ -0,0 +1,44 @@
+package ar.edu.um.events_proxy.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class EventUpdateMessageParserTest {
+
+    private final EventUpdateMessageParser parser = new EventUpdateMessageParser(new ObjectMapper());
+
+    @Test
+    void acceptsSupportedFormats() {
+        assertEquals(Set.of(3L), parser.parseEventIds("3"));
+        assertEquals(Set.of(3L), parser.parseEventIds("\"3\""));
+        assertEquals(Set.of(3L), parser.parseEventIds("{\"eventoId\": 3}"));
+        assertEquals(Set.of(3L), parser.parseEventIds("{\"id\": \"3\"}"));
+        assertEquals(Set.of(3L, 4L), parser.parseEventIds("{\"eventoIds\": [3, \"4\"]}"));
+        assertEquals(Set.of(3L, 4L, 5L), parser.parseEventIds("[3, {\"eventoId\": 4}, \"5\"]"));
+    }
+
+    @Test
+    void anyUnrecognizedPartMeansFullRefresh() {
+        for (String message : List.of(
+                "[3, {\"foo\": 1}]",
+                "[3, true]",
+                "[3, \"abc\"]",
+                "[3, null]",
+                "{\"eventoId\": null}",
+                "3.7",
+                "[3, 4.5]",
+                "\"-3\"",
+                "99999999999999999999",
+                "{\"foo\": 1}",
+                "no es json",
+                "")) {
+            assertEquals(Set.of(), parser.parseEventIds(message), message);
+        }
+    }
+}
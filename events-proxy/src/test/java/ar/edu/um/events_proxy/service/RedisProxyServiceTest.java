@@ -0,0 +1,127 @@
+package ar.edu.um.events_proxy.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ar.edu.um.events_proxy.dto.SeatDTO;
+import ar.edu.um.events_proxy.seatmap.SeatHashStore;
+import ar.edu.um.events_proxy.seatmap.SeatHoldExpiry;
+import ar.edu.um.events_proxy.seatmap.SeatMapCache;
+import ar.edu.um.events_proxy.seatmap.SeatMapCodec;
+
+class RedisProxyServiceTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+    private final SeatHashStore seatHashStore = mock(SeatHashStore.class);
+    @SuppressWarnings("unchecked")
+    private final ValueOperations<String, String> valueOperations = mock(ValueOperations.class);
+
+    private static final String SEAT_MAP = """
+            {"eventoId":7,"asientos":[
+              {"fila":1,"columna":1,"estado":"Vendido"},
+              {"fila":1,"columna":2,"estado":"Vendido"},
+              {"fila":2,"columna":1,"estado":"Bloqueado","expira":"%s"}
+            ]}""".formatted(Instant.now());
+
+    private RedisProxyService service(String layout) {
+        return new RedisProxyService(redisTemplate,
+                new SeatMapCodec(objectMapper, new SeatHoldExpiry(300000)),
+                new SeatMapCache(500, 1000),
+                seatHashStore,
+                layout,
+                true);
+    }
+
+    private static List<SeatDTO> seats() {
+        SeatDTO seat = new SeatDTO();
+        seat.setFila(1);
+        seat.setColumna(2);
+        return List.of(seat);
+    }
+
+    @Test
+    void seatWritesAreUnavailableInBlobLayout() {
+        RedisProxyService service = service("blob");
+
+        assertThrows(UnsupportedOperationException.class, () -> service.holdSeats("1", "t", seats()));
+        assertThrows(UnsupportedOperationException.class, () -> service.sellSeats("1", "t", seats()));
+        assertThrows(UnsupportedOperationException.class, () -> service.releaseSeats("1", "t", seats()));
+        verifyNoInteractions(seatHashStore);
+    }
+
+    @Test
+    void nonCanonicalEventIdsAreRejected() {
+        RedisProxyService service = service("hash");
+
+        for (String eventId : List.of("abc", "007", " 7", "1e3", "")) {
+            assertThrows(IllegalArgumentException.class, () -> service.holdSeats(eventId, "t", seats()), eventId);
+            assertThrows(IllegalArgumentException.class, () -> service.sellSeats(eventId, "t", seats()), eventId);
+            assertThrows(IllegalArgumentException.class, () -> service.releaseSeats(eventId, "t", seats()), eventId);
+        }
+        verifyNoInteractions(seatHashStore);
+    }
+
+    @Test
+    void hashLayoutRequiresMigratedWriters() {
+        assertThrows(IllegalStateException.class, () -> new RedisProxyService(redisTemplate,
+                new SeatMapCodec(objectMapper, new SeatHoldExpiry(300000)),
+                new SeatMapCache(500, 1000),
+                seatHashStore,
+                "hash",
+                false));
+    }
+
+    @Test
+    void seatLookupOutsideTheMapReturnsAFreeSeat() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get("evento_7")).thenReturn(SEAT_MAP);
+        RedisProxyService service = service("blob");
+
+        assertTrue(utf8(service.getSeat("7", 1, 2)).contains("\"estado\":\"Vendido\""));
+        assertEquals("{\"fila\":99,\"columna\":99,\"estado\":\"libre\"}", utf8(service.getSeat("7", 99, 99)));
+        assertNull(service.getSeat("8", 1, 1));
+    }
+
+    @Test
+    void seatCountsSkipEventsWithoutData() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.multiGet(List.of("evento_7", "evento_8"))).thenReturn(Arrays.asList(SEAT_MAP, null));
+
+        Map<String, Map<String, Integer>> counts = service("blob").getSeatCounts(List.of("7", "8"));
+
+        assertEquals(Map.of("7", Map.of("bloqueados", 1, "vendidos", 2)), counts);
+    }
+
+    @Test
+    void seatCountsReadTheHashLayoutInOneBatch() {
+        when(seatHashStore.loadJsonMany(List.of("7", "8"))).thenReturn(Arrays.asList(null, SEAT_MAP));
+
+        Map<String, Map<String, Integer>> counts = service("hash").getSeatCounts(List.of("7", "8"));
+
+        assertEquals(Map.of("8", Map.of("bloqueados", 1, "vendidos", 2)), counts);
+        verifyNoInteractions(redisTemplate);
+    }
+
+    private static String utf8(byte[] json) {
+        return new String(json, StandardCharsets.UTF_8);
+    }
+}